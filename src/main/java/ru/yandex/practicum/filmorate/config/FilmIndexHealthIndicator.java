@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmFilterIndex;
+import ru.yandex.practicum.filmorate.storage.film.FilmSearchIndex;
+
+/**
+ * Готовность индексов поиска и фильтрации фильмов, которые строятся в фоне после старта.
+ * <p>
+ * Входит в группу {@code readiness}: пока индексы строятся, {@code /actuator/health/readiness} отвечает
+ * {@code OUT_OF_SERVICE}, и балансировщик не шлёт трафик на экземпляр. Сам экземпляр уже отвечает на запросы,
+ * а поиск и фильтрация ждут конца построения.
+ */
+@Component
+@RequiredArgsConstructor
+public class FilmIndexHealthIndicator implements HealthIndicator {
+
+    private final FilmSearchIndex searchIndex;
+    private final FilmFilterIndex filterIndex;
+
+    @Override
+    public Health health() {
+        boolean search = searchIndex.isReady();
+        boolean filter = filterIndex.isReady();
+        return (search && filter ? Health.up() : Health.outOfService())
+                .withDetail("search", search)
+                .withDetail("filter", filter)
+                .build();
+    }
+
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+/**
+ * Метрики приложения сверх тех, что Spring Boot Actuator снимает сам.
+ * <p>
+ * Время и число запросов на каждый эндпоинт даёт таймер {@code http.server.requests} с тегами
+ * {@code uri}, {@code method} и {@code status}, JVM и GC — стандартные метрики {@code jvm.*}.
+ * Здесь добавляются размеры хранилищ; размер пакетного импорта пишут контроллеры в {@link #BATCH_SIZE_METRIC},
+ * ошибки считает {@code ExceptionHandlerController}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String STORAGE_SIZE_METRIC = "filmorate.storage.size";
+    public static final String BATCH_SIZE_METRIC = "filmorate.batch.size";
+
+    @Bean
+    public MeterBinder storageSizeMetrics(FilmStorage filmStorage, UserStorage userStorage) {
+        return registry -> {
+            Gauge.builder(STORAGE_SIZE_METRIC, filmStorage, FilmStorage::count)
+                    .description("Records in storage")
+                    .baseUnit("records")
+                    .tag("entity", "films")
+                    .register(registry);
+            Gauge.builder(STORAGE_SIZE_METRIC, userStorage, UserStorage::count)
+                    .description("Records in storage")
+                    .baseUnit("records")
+                    .tag("entity", "users")
+                    .register(registry);
+        };
+    }
+
+}
@@ -0,0 +1,78 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Асинхронная обработка потоковых ответов ({@code StreamingResponseBody}, NDJSON-выдача фильмов
+ * и пользователей).
+ * <p>
+ * По умолчанию Spring MVC запускает каждый потоковый ответ в новом платформенном потоке
+ * ({@code SimpleAsyncTaskExecutor}). Запись в сокет блокирующая и сама служит обратным давлением:
+ * медленный клиент останавливает чтение следующей порции из хранилища, но на всё это время держит
+ * поток ОС со своим стеком. С {@code filmorate.streaming.virtual-threads=true} ответы пишутся
+ * на виртуальных потоках, которые в таком ожидании поток ОС не занимают. Как и
+ * {@code spring.threads.virtual.enabled}, режим включается явно.
+ * <p>
+ * Выигрыш режима пока не измерен. Прежние прогоны {@code StreamingLoadBenchmark} передавали режим
+ * значением по умолчанию, которое перекрывал {@code application.properties}, так что оба прогона шли
+ * без виртуальных потоков и их разница — шум. Пока бенчмарк не прогнан заново, режим выключен.
+ * <p>
+ * Выгрузка всего каталога медленному клиенту может идти минуты, поэтому обработчикам, отдающим NDJSON,
+ * ставится свой таймаут {@code filmorate.streaming.request-timeout}. Остальные асинхронные запросы
+ * живут с таймаутом контейнера по умолчанию.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    private final boolean virtualThreads;
+    private final Duration requestTimeout;
+
+    public StreamingConfig(@Value("${filmorate.streaming.virtual-threads:false}") boolean virtualThreads,
+                           @Value("${filmorate.streaming.request-timeout:10m}") Duration requestTimeout) {
+        this.virtualThreads = virtualThreads;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("stream-");
+            executor.setVirtualThreads(true);
+            configurer.setTaskExecutor(executor);
+        }
+        configurer.registerCallableInterceptors(new NdjsonTimeout(requestTimeout.toMillis()));
+    }
+
+    /**
+     * Таймаут выставляется до начала асинхронной обработки. Обработчик узнаётся по типам из {@code produces}
+     * его маппинга, которые Spring MVC кладёт в атрибут запроса.
+     */
+    private record NdjsonTimeout(long timeoutMillis) implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            Object producible = request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (producible instanceof Collection<?> types && types.contains(MediaType.APPLICATION_NDJSON)
+                    && request instanceof AsyncWebRequest asyncRequest) {
+                asyncRequest.setTimeout(timeoutMillis);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выборочный журнал доступа: метод, путь, статус и время ответа.
+ * <p>
+ * Строка пишется для случайного запроса из каждых {@code sampleEvery}, для каждого ответа 5xx
+ * и для каждого запроса дольше {@code slowThreshold}. Ответы 4xx тоже идут в выборку: сканер,
+ * перебирающий несуществующие id, иначе заполнил бы журнал целиком. Выборка случайная, а не каждый
+ * N-й запрос, чтобы потоки не делили общий счётчик. Логгер отдельный, его уровень настраивается
+ * через {@code logging.level.ru.yandex.practicum.filmorate.access}.
+ */
+@Slf4j(topic = "ru.yandex.practicum.filmorate.access")
+@Component
+@ConditionalOnProperty(name = "filmorate.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final int sampleEvery;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(@Value("${filmorate.access-log.sample-every:100}") int sampleEvery,
+                           @Value("${filmorate.access-log.slow-threshold:1s}") Duration slowThreshold) {
+        this.sampleEvery = sampleEvery;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            // необработанное исключение контейнер превратит в 500 уже после фильтра
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (log.isInfoEnabled() && shouldLog(status, elapsed)) {
+                log.info("{} {} {} {} ms", request.getMethod(), request.getRequestURI(), status, elapsed / 1_000_000);
+            }
+        }
+    }
+
+    boolean shouldLog(int status, long elapsedNanos) {
+        return status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                || elapsedNanos >= slowThresholdNanos
+                || sampleEvery > 0 && ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+    }
+
+}
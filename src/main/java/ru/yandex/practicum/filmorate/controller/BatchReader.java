@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение пакетных запросов: JSON-массив или NDJSON разбираются поэлементно
+ * и передаются обработчику порциями, поэтому весь запрос целиком в памяти не держится.
+ */
+final class BatchReader {
+
+    static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Ошибка элемента {@code null}: JSON {@code null} в массиве или строка {@code null} в NDJSON
+     * доходят до обработчика порции как есть, и валидатор такой элемент не принимает.
+     */
+    static final List<String> NULL_ITEM_ERRORS = List.of("Элемент пакета не может быть null");
+
+    private BatchReader() {
+    }
+
+    /**
+     * @throws JsonProcessingException если поток не удалось разобрать; уже переданные порции остаются обработанными
+     */
+    static <T> void readChunks(ObjectMapper objectMapper, Class<T> type, InputStream body,
+                               Consumer<List<T>> chunkConsumer) throws IOException {
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (items.hasNextValue()) {
+                chunk.add(items.nextValue());
+                if (chunk.size() == CHUNK_SIZE) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        }
+    }
+
+    static <T> List<String> messages(Set<ConstraintViolation<T>> violations) {
+        List<String> messages = new ArrayList<>(violations.size());
+        for (ConstraintViolation<T> violation : violations) {
+            messages.add(violation.getMessage());
+        }
+        return messages;
+    }
+
+}
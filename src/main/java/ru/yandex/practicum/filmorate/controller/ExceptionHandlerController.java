@@ -1,22 +1,65 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.yandex.practicum.filmorate.dto.ErrorResponse;
+import ru.yandex.practicum.filmorate.exceptions.FilmorateException;
+import ru.yandex.practicum.filmorate.exceptions.IndexNotReadyException;
 import ru.yandex.practicum.filmorate.exceptions.InvalidFilmDataException;
 import ru.yandex.practicum.filmorate.exceptions.InvalidUserDataException;
 import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
 import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
 
+/**
+ * Ответы на ошибки. Каждый обработчик считает свои срабатывания в метрике {@code filmorate.errors}
+ * с тегами {@code handler} и {@code status}: по ней строится доля отказов на каждый вид ошибки.
+ * <p>
+ * Ошибки клиента пишутся в лог одной строкой в WARN без стека: стек указывает на место проверки
+ * в контроллере и ничего не говорит о причине, а под нагрузкой его рендеринг заметно дороже самого ответа.
+ * По той же причине исключения предметной области не собирают стек вовсе, см. {@link FilmorateException}.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ExceptionHandlerController {
+
+    static final String ERRORS_METRIC = "filmorate.errors";
+
+    private final Counter invalidUserDataErrors;
+    private final Counter noUserFoundErrors;
+    private final Counter userAlreadyExistsErrors;
+    private final Counter invalidFilmDataErrors;
+    private final Counter noFilmFoundErrors;
+    private final Counter invalidRequestBodyErrors;
+    private final Counter versionConflictErrors;
+    private final Counter preconditionFailedErrors;
+    private final Counter indexNotReadyErrors;
+
+    public ExceptionHandlerController(MeterRegistry meterRegistry) {
+        invalidUserDataErrors = errors(meterRegistry, "handleInvalidUserDataException", HttpStatus.BAD_REQUEST);
+        noUserFoundErrors = errors(meterRegistry, "handleNoUserFoundException", HttpStatus.NOT_FOUND);
+        userAlreadyExistsErrors = errors(meterRegistry, "handleUserAlreadyExistsException", HttpStatus.CONFLICT);
+        invalidFilmDataErrors = errors(meterRegistry, "handleInvalidFilmDataException", HttpStatus.BAD_REQUEST);
+        noFilmFoundErrors = errors(meterRegistry, "handleNoFilmFoundException", HttpStatus.NOT_FOUND);
+        invalidRequestBodyErrors = errors(meterRegistry, "handleMethodArgumentNotValidException", HttpStatus.BAD_REQUEST);
+        versionConflictErrors = errors(meterRegistry, "handleVersionConflictException", HttpStatus.CONFLICT);
+        preconditionFailedErrors = errors(meterRegistry, "handlePreconditionFailedException", HttpStatus.PRECONDITION_FAILED);
+        indexNotReadyErrors = errors(meterRegistry, "handleIndexNotReadyException", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(InvalidUserDataException.class)
     public ResponseEntity<?> handleInvalidUserDataException(final InvalidUserDataException e) {
-        log.error(e.getMessage(), e);
+        invalidUserDataErrors.increment();
+        log.warn(e.getMessage());
         return new ResponseEntity<>(
                 new ErrorResponse(400, "Invalid user data", e.getMessage()),
                 HttpStatus.BAD_REQUEST
@@ -25,6 +68,7 @@ public class ExceptionHandlerController {
 
     @ExceptionHandler(NoUserFoundException.class)
     public ResponseEntity<?> handleNoUserFoundException(final NoUserFoundException e) {
+        noUserFoundErrors.increment();
         log.warn(e.getMessage());
         return new ResponseEntity<>(
                 new ErrorResponse(404, "Failed to create user", e.getMessage()),
@@ -32,11 +76,22 @@ public class ExceptionHandlerController {
         );
     }
 
+    @ExceptionHandler(UserAlreadyExistsException.class)
+    public ResponseEntity<?> handleUserAlreadyExistsException(final UserAlreadyExistsException e) {
+        userAlreadyExistsErrors.increment();
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse(409, "User already exists", e.getMessage()),
+                HttpStatus.CONFLICT
+        );
+    }
+
     // Можно создать общие исключения NoEntityFound/InvalidEntityData, но пока что можно и без них обойтись
 
     @ExceptionHandler(InvalidFilmDataException.class)
     public ResponseEntity<?> handleInvalidFilmDataException(final InvalidFilmDataException e) {
-        log.error(e.getMessage(), e);
+        invalidFilmDataErrors.increment();
+        log.warn(e.getMessage());
         return new ResponseEntity<>(
                 new ErrorResponse(400, "Invalid film data", e.getMessage()),
                 HttpStatus.BAD_REQUEST
@@ -45,6 +100,7 @@ public class ExceptionHandlerController {
 
     @ExceptionHandler(NoFilmFoundException.class)
     public ResponseEntity<?> handleNoFilmFoundException(final NoFilmFoundException e) {
+        noFilmFoundErrors.increment();
         log.warn(e.getMessage());
         return new ResponseEntity<>(
                 new ErrorResponse(404, "Failed to create film", e.getMessage()),
@@ -52,4 +108,74 @@ public class ExceptionHandlerController {
         );
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<?> handleVersionConflictException(final VersionConflictException e) {
+        versionConflictErrors.increment();
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse(409, "Version conflict", e.getMessage()),
+                HttpStatus.CONFLICT
+        );
+    }
+
+    /**
+     * Условие из If-Match не выполнено, см. {@link Versions}.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<?> handlePreconditionFailedException(final PreconditionFailedException e) {
+        preconditionFailedErrors.increment();
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse(412, "Precondition failed", e.getMessage()),
+                HttpStatus.PRECONDITION_FAILED
+        );
+    }
+
+    /**
+     * Индекс поиска или фильтрации ещё не построен после сбоя при старте; построение повторяется в фоне.
+     */
+    @ExceptionHandler(IndexNotReadyException.class)
+    public ResponseEntity<?> handleIndexNotReadyException(final IndexNotReadyException e) {
+        indexNotReadyErrors.increment();
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse(503, "Index is not ready", e.getMessage()),
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    /**
+     * Тело запроса не прошло {@code @Valid}. Вместо стандартного ответа Spring с полным описанием
+     * {@code BindingResult} клиент получает одну строку «поле: сообщение» на каждое нарушение.
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<?> handleMethodArgumentNotValidException(final MethodArgumentNotValidException e) {
+        invalidRequestBodyErrors.increment();
+        String message = describe(e);
+        log.warn("Invalid request body: {}", message);
+        return new ResponseEntity<>(
+                new ErrorResponse(400, "Invalid request body", message),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
+    private static String describe(MethodArgumentNotValidException e) {
+        StringBuilder message = new StringBuilder();
+        for (FieldError error : e.getFieldErrors()) {
+            if (!message.isEmpty()) {
+                message.append("; ");
+            }
+            message.append(error.getField()).append(": ").append(error.getDefaultMessage());
+        }
+        return message.toString();
+    }
+
+    private static Counter errors(MeterRegistry meterRegistry, String handler, HttpStatus status) {
+        return Counter.builder(ERRORS_METRIC)
+                .description("Errors answered by ExceptionHandlerController")
+                .tag("handler", handler)
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry);
+    }
+
 }
@@ -1,66 +1,372 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.config.MetricsConfig;
+import ru.yandex.practicum.filmorate.dto.BatchItemResult;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 import ru.yandex.practicum.filmorate.exceptions.InvalidFilmDataException;
 import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmFilterIndex;
+import ru.yandex.practicum.filmorate.storage.film.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.like.LikeStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
 @RequestMapping("/films")
+@RequiredArgsConstructor
 public class FilmController {
 
-    private final Map<Long, Film> films = new HashMap<>();
-    private Long filmCurrentId = 1L;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
 
+    private final FilmStorage filmStorage;
+    private final FilmSearchIndex searchIndex;
+    private final FilmFilterIndex filterIndex;
+    private final LikeStorage likeStorage;
+    private final UserStorage userStorage;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Без параметров возвращает все фильмы, с {@code limit}/{@code after} — страницу по курсору.
+     * Фильтры по дате выхода и продолжительности (границы включительно) читаются из вторичных индексов.
+     */
     @GetMapping
-    public Collection<Film> getFilms() {
-        log.debug("Get all films info");
-        return films.values();
+    public ResponseEntity<Collection<Film>> getFilms(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedTo,
+            @RequestParam(required = false) Integer minDuration,
+            @RequestParam(required = false) Integer maxDuration) {
+        if (releasedFrom != null || releasedTo != null || minDuration != null || maxDuration != null) {
+            return filterFilms(limit, after, releasedFrom, releasedTo, minDuration, maxDuration);
+        }
+        if (limit == null && after == null) {
+            log.debug("Get all films info");
+            return ResponseEntity.ok(filmStorage.findAll());
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : checkPageSize(limit);
+        long cursor = after == null ? 0 : after;
+        log.debug("Get films page after id {} with limit {}", cursor, pageSize);
+        List<Film> page = filmStorage.findPage(cursor, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * NDJSON-выдача с теми же фильтрами, что и у {@link #getFilms}: с фильтром порции читаются из вторичных индексов.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFilms(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedTo,
+            @RequestParam(required = false) Integer minDuration,
+            @RequestParam(required = false) Integer maxDuration) {
+        NdjsonStreams.PageLoader<Film> loader = filmStorage::findPage;
+        if (releasedFrom != null || releasedTo != null || minDuration != null || maxDuration != null) {
+            checkFilterRanges(releasedFrom, releasedTo, minDuration, maxDuration);
+            log.debug("Stream films after id {} released {}..{} with duration {}..{}",
+                    after, releasedFrom, releasedTo, minDuration, maxDuration);
+            loader = (cursor, limit) -> findFilteredPage(cursor, limit, releasedFrom, releasedTo, minDuration, maxDuration);
+        } else {
+            log.debug("Stream films after id {}", after);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreams.of(objectMapper, Film.class, after, loader, Film::getId));
+    }
+
+    /**
+     * Топ фильмов по числу лайков читается из рейтинга, который обновляется при каждом лайке.
+     * Если фильмов с лайками меньше {@code count}, список добирается фильмами без лайков в порядке id.
+     */
+    @GetMapping("/popular")
+    public List<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count) {
+        if (count < 1 || count > MAX_PAGE_SIZE) {
+            throw new InvalidFilmDataException("Count must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.debug("Get {} popular films", count);
+        List<Film> popular = new ArrayList<>(count);
+        Set<Long> popularIds = new HashSet<>();
+        for (long id : likeStorage.findPopular(count)) {
+            filmStorage.findById(id).ifPresent(popular::add);
+            popularIds.add(id);
+        }
+        long after = 0;
+        while (popular.size() < count) {
+            List<Film> page = filmStorage.findPage(after, count);
+            for (Film film : page) {
+                if (popular.size() < count && !popularIds.contains(film.getId())) {
+                    popular.add(film);
+                }
+            }
+            if (page.size() < count) {
+                break;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+        return popular;
+    }
+
+    @GetMapping("/search")
+    public List<Film> searchFilms(@RequestParam String query, @RequestParam(defaultValue = "10") int count) {
+        if (query.isBlank()) {
+            throw new InvalidFilmDataException("Search query is empty");
+        }
+        if (count < 1 || count > MAX_PAGE_SIZE) {
+            throw new InvalidFilmDataException("Count must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.debug("Search {} films by query '{}'", count, query);
+        List<Film> found = new ArrayList<>(count);
+        for (long id : searchIndex.search(query, count)) {
+            filmStorage.findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * Strong ETag строится из версии записи: если клиент прислал совпадающий If-None-Match,
+     * отвечаем 304 без сериализации тела.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Film> getFilm(@PathVariable long id) {
+        log.debug("Get film with id {}", id);
+        Film film = filmStorage.findById(id)
+                .orElseThrow(() -> new NoFilmFoundException("Film with id " + id + " does not exist"));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(film.getVersion()))
+                .body(film);
     }
 
     @PostMapping
     public Film addFilm(@Valid @RequestBody FilmDto incomingFilmDto) {
-        Film film = Film.of(incomingFilmDto);
-        if (film.getId() == null) {
-            log.info("Film id is empty. Set new id: {}", filmCurrentId);
-            film.setId(filmCurrentId++);
+        Film film = filmStorage.add(Film.of(incomingFilmDto));
+        searchIndex.index(film);
+        filterIndex.index(film);
+        // сущность целиком — только в DEBUG: на INFO каждая запись стоила бы рендеринга toString()
+        log.info("User added new film with id {}", film.getId());
+        log.debug("Added film: {}", film);
+        return film;
+    }
+
+    @PutMapping("/{id}/like/{userId}")
+    public void addLike(@PathVariable long id, @PathVariable long userId) {
+        checkLikeParticipants(id, userId);
+        if (likeStorage.addLike(id, userId)) {
+            log.info("User {} liked film {}", userId, id);
         }
-        if (films.containsKey(film.getId())) {
-            log.warn("Film with id {} already exists. Set new id: {}", film.getId(), filmCurrentId);
-            film.setId(filmCurrentId++);
+    }
+
+    @DeleteMapping("/{id}/like/{userId}")
+    public void removeLike(@PathVariable long id, @PathVariable long userId) {
+        checkLikeParticipants(id, userId);
+        if (likeStorage.removeLike(id, userId)) {
+            log.info("User {} removed like from film {}", userId, id);
         }
-        log.info("User added new film: {}", film);
-        films.put(film.getId(), film);
-        return film;
     }
 
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<BatchItemResult> importFilms(InputStream body) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        try {
+            BatchReader.readChunks(objectMapper, FilmDto.class, body, chunk -> importChunk(chunk, results));
+        } catch (JsonProcessingException e) {
+            throw new InvalidFilmDataException("Malformed film batch after " + results.size() + " items: "
+                    + e.getOriginalMessage());
+        }
+        log.info("User imported {} films in batch", results.size());
+        meterRegistry.summary(MetricsConfig.BATCH_SIZE_METRIC, "entity", "films").record(results.size());
+        return results;
+    }
+
+    /**
+     * С If-Match или полем {@code version} в теле фильм заменяется, только если его версия не изменилась
+     * с момента чтения; иначе ответ 412 или 409 соответственно. Без них замена безусловная.
+     * Новая версия возвращается в ETag.
+     */
     @PutMapping
-    public Film updateFilm(@Valid @RequestBody FilmDto incomingFilmDto) {
-        log.info("User want update film: {}", incomingFilmDto);
+    public ResponseEntity<Film> updateFilm(@Valid @RequestBody FilmDto incomingFilmDto,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Film film = Film.of(incomingFilmDto);
         if (film.getId() == null) {
             throw new InvalidFilmDataException("Film id is empty. Failed to update film");
         }
-        if (!films.containsKey(film.getId())) {
-            throw new NoFilmFoundException("Film with id " + film.getId() + " does not exist");
-        }
 
+        Versions.update(ifMatch, incomingFilmDto.getVersion(), () -> filmStorage.update(film),
+                expectedVersion -> filmStorage.update(film, expectedVersion));
+        searchIndex.index(film);
+        filterIndex.index(film);
         log.info("User updated film with id {}", film.getId());
-        films.put(film.getId(), film);
-        return film;
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(film.getVersion()))
+                .body(film);
+    }
+
+    private ResponseEntity<Collection<Film>> filterFilms(Integer limit, Long after,
+                                                         LocalDate releasedFrom, LocalDate releasedTo,
+                                                         Integer minDuration, Integer maxDuration) {
+        checkFilterRanges(releasedFrom, releasedTo, minDuration, maxDuration);
+        int pageSize = limit == null ? Integer.MAX_VALUE : checkPageSize(limit);
+        log.debug("Filter films released {}..{} with duration {}..{}", releasedFrom, releasedTo, minDuration, maxDuration);
+        // на одну запись больше страницы: по ней видно, есть ли следующая страница
+        long[] ids = findFilteredIds(after == null ? 0 : after, pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1,
+                releasedFrom, releasedTo, minDuration, maxDuration);
+        int to = Math.min(ids.length, pageSize);
+        List<Film> page = new ArrayList<>(to);
+        for (int i = 0; i < to; i++) {
+            // индекс обновляется после записи в хранилище и может отставать: условия проверяются ещё раз
+            filmStorage.findById(ids[i])
+                    .filter(film -> matches(film, releasedFrom, releasedTo, minDuration, maxDuration))
+                    .ifPresent(page::add);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (ids.length > pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(ids[to - 1]));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Порция NDJSON-выдачи с фильтром. Фильмы, которые индекс вернул, но которые уже не подходят
+     * под условия, пропускаются, и индекс читается дальше: порция короче {@code limit} означает конец выдачи.
+     */
+    private List<Film> findFilteredPage(long after, int limit, LocalDate releasedFrom, LocalDate releasedTo,
+                                        Integer minDuration, Integer maxDuration) {
+        List<Film> page = new ArrayList<>(limit);
+        long cursor = after;
+        long[] ids;
+        int requested;
+        do {
+            requested = limit - page.size();
+            ids = findFilteredIds(cursor, requested, releasedFrom, releasedTo, minDuration, maxDuration);
+            for (long id : ids) {
+                filmStorage.findById(id)
+                        .filter(film -> matches(film, releasedFrom, releasedTo, minDuration, maxDuration))
+                        .ifPresent(page::add);
+            }
+            if (ids.length > 0) {
+                cursor = ids[ids.length - 1];
+            }
+        } while (page.size() < limit && ids.length == requested);
+        return page;
+    }
+
+    private long[] findFilteredIds(long after, int limit, LocalDate releasedFrom, LocalDate releasedTo,
+                                   Integer minDuration, Integer maxDuration) {
+        return filterIndex.find(
+                releasedFrom == null ? Integer.MIN_VALUE : FilmFilterIndex.toEpochDay(releasedFrom),
+                releasedTo == null ? Integer.MAX_VALUE : FilmFilterIndex.toEpochDay(releasedTo),
+                minDuration == null ? Integer.MIN_VALUE : minDuration,
+                maxDuration == null ? Integer.MAX_VALUE : maxDuration,
+                after,
+                limit);
+    }
+
+    private static void checkFilterRanges(LocalDate releasedFrom, LocalDate releasedTo,
+                                          Integer minDuration, Integer maxDuration) {
+        if (releasedFrom != null && releasedTo != null && releasedFrom.isAfter(releasedTo)) {
+            throw new InvalidFilmDataException("releasedFrom must not be after releasedTo");
+        }
+        if (minDuration != null && maxDuration != null && minDuration > maxDuration) {
+            throw new InvalidFilmDataException("minDuration must not be greater than maxDuration");
+        }
+    }
+
+    private static boolean matches(Film film, LocalDate releasedFrom, LocalDate releasedTo,
+                                   Integer minDuration, Integer maxDuration) {
+        LocalDate releaseDate = film.getReleaseDate();
+        Integer duration = film.getDuration();
+        return releaseDate != null && duration != null
+                && (releasedFrom == null || !releaseDate.isBefore(releasedFrom))
+                && (releasedTo == null || !releaseDate.isAfter(releasedTo))
+                && (minDuration == null || duration >= minDuration)
+                && (maxDuration == null || duration <= maxDuration);
+    }
+
+    private static int checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidFilmDataException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private void checkLikeParticipants(long filmId, long userId) {
+        if (filmStorage.findById(filmId).isEmpty()) {
+            throw new NoFilmFoundException("Film with id " + filmId + " does not exist");
+        }
+        if (userStorage.findById(userId).isEmpty()) {
+            throw new NoUserFoundException("User with id " + userId + " not found");
+        }
+    }
+
+    private void importChunk(List<FilmDto> chunk, List<BatchItemResult> results) {
+        int firstIndex = results.size();
+        List<Film> validFilms = new ArrayList<>(chunk.size());
+        List<Integer> validIndexes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            FilmDto dto = chunk.get(i);
+            if (dto == null) {
+                results.add(BatchItemResult.invalid(firstIndex + i, BatchReader.NULL_ITEM_ERRORS));
+                continue;
+            }
+            Set<ConstraintViolation<FilmDto>> violations = validator.validate(dto);
+            if (violations.isEmpty()) {
+                validFilms.add(Film.of(dto));
+                validIndexes.add(results.size());
+                results.add(null);
+            } else {
+                results.add(BatchItemResult.invalid(firstIndex + i, BatchReader.messages(violations)));
+            }
+        }
+        filmStorage.addAll(validFilms);
+        searchIndex.indexAll(validFilms);
+        filterIndex.indexAll(validFilms);
+        for (int i = 0; i < validFilms.size(); i++) {
+            int index = validIndexes.get(i);
+            results.set(index, BatchItemResult.of(index, BatchItemResult.Status.CREATED, validFilms.get(i).getId()));
+        }
     }
 
 }
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Потоковая выдача коллекций в формате NDJSON: записи читаются из хранилища порциями по id
+ * и пишутся в ответ по одной строке, так что в памяти держится только текущая порция.
+ */
+final class NdjsonStreams {
+
+    static final int CHUNK_SIZE = 500;
+
+    private NdjsonStreams() {
+    }
+
+    @FunctionalInterface
+    interface PageLoader<T> {
+        List<T> load(long afterId, int limit);
+    }
+
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Class<T> type, long afterId,
+                                        PageLoader<T> loader, Function<T, Long> idGetter) {
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                long cursor = afterId;
+                List<T> page;
+                do {
+                    page = loader.load(cursor, CHUNK_SIZE);
+                    for (T item : page) {
+                        writer.writeValue(generator, item);
+                        generator.writeRaw('\n');
+                    }
+                    if (!page.isEmpty()) {
+                        cursor = idGetter.apply(page.get(page.size() - 1));
+                    }
+                    generator.flush();
+                } while (page.size() == CHUNK_SIZE);
+            }
+        };
+    }
+
+}
@@ -1,68 +1,272 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.config.MetricsConfig;
+import ru.yandex.practicum.filmorate.dto.BatchItemResult;
 import ru.yandex.practicum.filmorate.dto.UserDto;
 import ru.yandex.practicum.filmorate.exceptions.InvalidUserDataException;
 import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.friend.FriendStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
 @RequestMapping("/users")
+@RequiredArgsConstructor
 public class UserController {
 
-    private final Map<Long, User> users = new HashMap<>();
-    private Long userCurrentId = 1L;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final UserStorage userStorage;
+    private final FriendStorage friendStorage;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
 
     @GetMapping
-    public Collection<User> getUsers() {
-        log.debug("Get all users info");
-        return users.values();
+    public ResponseEntity<Collection<User>> getUsers(@RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) Long after) {
+        if (limit == null && after == null) {
+            log.debug("Get all users info");
+            return ResponseEntity.ok(userStorage.findAll());
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidUserDataException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long cursor = after == null ? 0 : after;
+        log.debug("Get users page after id {} with limit {}", cursor, pageSize);
+        List<User> page = userStorage.findPage(cursor, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(defaultValue = "0") long after) {
+        log.debug("Stream users after id {}", after);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreams.of(objectMapper, User.class, after, userStorage::findPage, User::getId));
+    }
+
+    /**
+     * Strong ETag строится из версии записи: если клиент прислал совпадающий If-None-Match,
+     * отвечаем 304 без сериализации тела.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getUser(@PathVariable long id) {
+        log.debug("Get user with id {}", id);
+        User user = userStorage.findById(id)
+                .orElseThrow(() -> new NoUserFoundException("User with id " + id + " not found"));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(user.getVersion()))
+                .body(user);
+    }
+
+    @GetMapping("/by-login/{login}")
+    public User getUserByLogin(@PathVariable String login) {
+        log.debug("Get user with login {}", login);
+        return userStorage.findByLogin(login)
+                .orElseThrow(() -> new NoUserFoundException("User with login " + login + " not found"));
+    }
+
+    @GetMapping("/{id}/friends")
+    public List<User> getFriends(@PathVariable long id) {
+        log.debug("Get friends of user {}", id);
+        requireUser(id);
+        return toUsers(friendStorage.findFriendIds(id));
+    }
+
+    @GetMapping("/{id}/friends/common/{otherId}")
+    public List<User> getCommonFriends(@PathVariable long id, @PathVariable long otherId) {
+        log.debug("Get common friends of users {} and {}", id, otherId);
+        requireUser(id);
+        requireUser(otherId);
+        return toUsers(friendStorage.findCommonFriendIds(id, otherId));
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public List<User> getRecommendations(@PathVariable long id, @RequestParam(defaultValue = "10") int count) {
+        if (count < 1 || count > MAX_PAGE_SIZE) {
+            throw new InvalidUserDataException("Count must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.debug("Get {} friend recommendations for user {}", count, id);
+        requireUser(id);
+        return toUsers(friendStorage.findRecommendedIds(id, count));
     }
 
     @PostMapping
     public ResponseEntity<User> addUser(@Valid @RequestBody UserDto incomingUserDto) {
-        User user = User.of(incomingUserDto);
-        if (user.getId() == null) {
-            log.info("User id is empty. Set new id: {}", userCurrentId);
-            user.setId(userCurrentId++);
-        } else if (users.containsKey(user.getId()) || user.getId() < userCurrentId) {
-            log.warn("User with id {} already exists. Set new id: {}", user.getId(), userCurrentId);
-            user.setId(userCurrentId++);
-        }
-        log.info("User added new user: {}", user);
-        users.put(user.getId(), user);
-        userCurrentId = Math.max(userCurrentId, user.getId() + 1);
+        User user = userStorage.add(User.of(incomingUserDto));
+        // сущность целиком — только в DEBUG: на INFO каждая запись стоила бы рендеринга toString()
+        log.info("User added new user with id {}", user.getId());
+        log.debug("Added user: {}", user);
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
+    /**
+     * Пакетный upsert: пользователи с существующим id обновляются, остальные создаются с новыми id.
+     * Элементы с занятым другим пользователем email или login получают статус {@code CONFLICT}.
+     */
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<BatchItemResult> importUsers(InputStream body) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        try {
+            BatchReader.readChunks(objectMapper, UserDto.class, body, chunk -> importChunk(chunk, results));
+        } catch (JsonProcessingException e) {
+            throw new InvalidUserDataException("Malformed user batch after " + results.size() + " items: "
+                    + e.getOriginalMessage());
+        }
+        log.info("User imported {} users in batch", results.size());
+        meterRegistry.summary(MetricsConfig.BATCH_SIZE_METRIC, "entity", "users").record(results.size());
+        return results;
+    }
+
+    @PutMapping("/{id}/friends/{friendId}")
+    public void addFriend(@PathVariable long id, @PathVariable long friendId) {
+        checkFriendship(id, friendId);
+        if (friendStorage.addFriend(id, friendId)) {
+            log.info("Users {} and {} became friends", id, friendId);
+        }
+    }
+
+    @DeleteMapping("/{id}/friends/{friendId}")
+    public void removeFriend(@PathVariable long id, @PathVariable long friendId) {
+        checkFriendship(id, friendId);
+        if (friendStorage.removeFriend(id, friendId)) {
+            log.info("Users {} and {} are no longer friends", id, friendId);
+        }
+    }
+
+    /**
+     * С If-Match или полем {@code version} в теле пользователь заменяется, только если его версия
+     * не изменилась с момента чтения; иначе ответ 412 или 409 соответственно. Без них замена безусловная.
+     * Новая версия возвращается в ETag.
+     */
     @PutMapping
-    public ResponseEntity<?> updateUser(@Valid @RequestBody UserDto incomingUserDto) {
-        log.info("Update user {} request", incomingUserDto);
+    public ResponseEntity<?> updateUser(@Valid @RequestBody UserDto incomingUserDto,
+                                        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         User updatedUser = User.of(incomingUserDto);
         if (updatedUser.getId() == null) {
             throw new InvalidUserDataException("User id is empty. Failed to update user");
         }
-        if (!users.containsKey(updatedUser.getId())) {
-            throw new NoUserFoundException("User with id " + updatedUser.getId() + " not found");
-        }
 
+        Versions.update(ifMatch, incomingUserDto.getVersion(), () -> userStorage.update(updatedUser),
+                expectedVersion -> userStorage.update(updatedUser, expectedVersion));
         log.info("User updated user with id {}", updatedUser.getId());
-        users.put(updatedUser.getId(), updatedUser);
-        return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updatedUser.getVersion()))
+                .body(updatedUser);
+    }
+
+    private void checkFriendship(long userId, long friendId) {
+        if (userId == friendId) {
+            throw new InvalidUserDataException("User " + userId + " can not be added to own friends");
+        }
+        requireUser(userId);
+        requireUser(friendId);
+    }
+
+    private void requireUser(long id) {
+        if (userStorage.findById(id).isEmpty()) {
+            throw new NoUserFoundException("User with id " + id + " not found");
+        }
+    }
+
+    private List<User> toUsers(long[] ids) {
+        List<User> users = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            userStorage.findById(id).ifPresent(users::add);
+        }
+        return users;
+    }
+
+    private void importChunk(List<UserDto> chunk, List<BatchItemResult> results) {
+        int firstIndex = results.size();
+        List<User> validUsers = new ArrayList<>(chunk.size());
+        List<User> updates = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserDto dto = chunk.get(i);
+            if (dto == null) {
+                results.add(BatchItemResult.invalid(firstIndex + i, BatchReader.NULL_ITEM_ERRORS));
+                continue;
+            }
+            Set<ConstraintViolation<UserDto>> violations = validator.validate(dto);
+            if (violations.isEmpty()) {
+                User user = User.of(dto);
+                validUsers.add(user);
+                if (user.getId() != null) {
+                    updates.add(user);
+                }
+                results.add(null);
+            } else {
+                results.add(BatchItemResult.invalid(firstIndex + i, BatchReader.messages(violations)));
+            }
+        }
+
+        // не обновлённые пользователи создаются заново: если их не было, они получат новые id,
+        // а если мешал занятый email или login, вставка тоже не пройдёт и элемент получит CONFLICT
+        Set<User> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejected.addAll(userStorage.replaceAll(updates));
+        List<User> newUsers = new ArrayList<>(validUsers.size() - updates.size() + rejected.size());
+        for (User user : validUsers) {
+            if (user.getId() == null || rejected.contains(user)) {
+                newUsers.add(user);
+            }
+        }
+        Set<User> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        created.addAll(userStorage.addAll(newUsers));
+
+        int validIndex = 0;
+        for (int i = firstIndex; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                User user = validUsers.get(validIndex++);
+                if (created.contains(user)) {
+                    results.set(i, BatchItemResult.of(i, BatchItemResult.Status.CREATED, user.getId()));
+                } else if (rejected.contains(user) || user.getId() == null) {
+                    results.set(i, BatchItemResult.conflict(i, "Пользователь с таким email или логином уже существует"));
+                } else {
+                    results.set(i, BatchItemResult.of(i, BatchItemResult.Status.UPDATED, user.getId()));
+                }
+            }
+        }
     }
 
 }
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Условный PUT. Strong ETag, который отдают {@code GET /films/{id}} и {@code GET /users/{id}}, — это номер
+ * версии в кавычках, поэтому If-Match разбирается без обращения к хранилищу.
+ * <p>
+ * Версия из If-Match — условие запроса, её несовпадение означает 412. {@code If-Match: *} требует только,
+ * чтобы запись существовала, иначе тоже 412. Если записи нет, любой If-Match не выполнен (RFC 9110, 13.1.1),
+ * и ответ — 412, а не 404. Версия из поля {@code version} тела — часть самих данных,
+ * и устаревшая правка отклоняется как конфликт, 409, с заголовком {@code *} или без него.
+ */
+final class Versions {
+
+    private static final String ANY = "*";
+
+    /**
+     * Версия, которой не бывает у записи: хранилища начинают с 1. Условие с ней всегда ложно.
+     */
+    private static final long NO_MATCH = 0;
+
+    private Versions() {
+    }
+
+    /**
+     * Выполняет правку с условиями клиента. Без If-Match с ETag и без версии в теле правка безусловная.
+     *
+     * @param unconditional безусловная замена записи
+     * @param conditional   замена, если текущая версия записи равна переданной
+     */
+    static void update(String ifMatch, Long bodyVersion, Runnable unconditional, LongConsumer conditional) {
+        boolean mustExist = ifMatch != null && ANY.equals(ifMatch.trim());
+        Long precondition = mustExist ? null : fromIfMatch(ifMatch);
+        try {
+            if (precondition != null) {
+                conditional.accept(precondition);
+            } else if (bodyVersion != null) {
+                conditional.accept(bodyVersion);
+            } else {
+                unconditional.run();
+            }
+        } catch (VersionConflictException e) {
+            if (precondition != null) {
+                throw new PreconditionFailedException(e.getMessage());
+            }
+            throw e;
+        } catch (NoFilmFoundException | NoUserFoundException e) {
+            if (precondition != null || mustExist) {
+                throw new PreconditionFailedException(e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Версия из If-Match. Weak ETag, список из нескольких ETag и чужие значения не совпадают ни с одной
+     * версией, и правка отклоняется.
+     *
+     * @return {@code null}, если заголовка нет
+     */
+    static Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag, 1, tag.length() - 1, 10);
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат обработки одного элемента пакетного запроса. {@code index} — позиция элемента во входном потоке.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private int index;
+    private Status status;
+    private Long id;
+    private List<String> errors;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        INVALID,
+        CONFLICT
+    }
+
+    public static BatchItemResult of(int index, Status status, Long id) {
+        return new BatchItemResult(index, status, id, null);
+    }
+
+    public static BatchItemResult invalid(int index, List<String> errors) {
+        return new BatchItemResult(index, Status.INVALID, null, errors);
+    }
+
+    public static BatchItemResult conflict(int index, String error) {
+        return new BatchItemResult(index, Status.CONFLICT, null, List.of(error));
+    }
+
+}
@@ -6,7 +6,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 @Data
@@ -16,16 +18,38 @@ import java.time.format.DateTimeFormatter;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorResponse {
 
+    /**
+     * Последняя отформатированная секунда. Отметка времени в ответе с точностью до секунды,
+     * поэтому все ошибки одной секунды берут готовую строку, а не форматируют время заново.
+     */
+    private static volatile Timestamp lastTimestamp = new Timestamp(Long.MIN_VALUE, null);
+
     private String timestamp;
     private int status;
     private String error;
     private String message;
 
     public ErrorResponse(int status, String error, String message) {
-        this.timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
+        this.timestamp = now();
         this.status = status;
         this.error = error;
         this.message = message;
     }
 
+    static String now() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp cached = lastTimestamp;
+        if (cached.second() != second) {
+            // гонка безопасна: потоки одной секунды запишут одинаковые строки
+            String text = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault())
+                    .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            cached = new Timestamp(second, text);
+            lastTimestamp = cached;
+        }
+        return cached.text();
+    }
+
+    private record Timestamp(long second, String text) {
+    }
+
 }
@@ -1,16 +1,15 @@
 package ru.yandex.practicum.filmorate.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import ru.yandex.practicum.filmorate.validation.NotBeforeFirstFilm;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.LocalDate;
 
 @Getter
 @Setter
@@ -22,22 +21,14 @@ public class FilmDto {
     @Size(max = 200, message = "Описание не более 200 символов")
     private String description;
     @NotNull(message = "Дата релиза не может быть null")
+    @NotBeforeFirstFilm
     @JsonFormat(pattern = "yyyy-MM-dd")
-    private Date releaseDate;
+    private LocalDate releaseDate;
     @NotNull(message = "Продолжительность должна быть положительной")
     @Positive(message = "Продолжительность должна быть положительной")
     private Integer duration;
-
-    @AssertTrue(message = "Фильм выпущен не ранее 18.12.1895")
-    private boolean isNotBeforeFirstFilm() {
-        if (releaseDate == null) {
-            return false;
-        }
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(1895, Calendar.DECEMBER, 27, 23, 59, 59);
-        Date dateBeforeFirstFilm = calendar.getTime();
-        return releaseDate.after(dateBeforeFirstFilm);
-    }
-
+    // Версия, с которой клиент начинал правку; учитывается только в PUT и только без If-Match
+    @Positive(message = "Версия должна быть положительной")
+    private Long version;
 
 }
@@ -6,9 +6,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 @Data
 public class UserDto {
@@ -25,6 +26,9 @@ public class UserDto {
     @NotNull(message = "День рождения не может быть пустым")
     @PastOrPresent(message = "День рождения не может быть в будущем")
     @JsonFormat(pattern = "yyyy-MM-dd")
-    Date birthday;
+    LocalDate birthday;
+    // Версия, с которой клиент начинал правку; учитывается только в PUT и только без If-Match
+    @Positive(message = "Версия должна быть положительной")
+    Long version;
 
 }
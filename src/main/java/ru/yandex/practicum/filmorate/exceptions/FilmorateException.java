@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+/**
+ * Общий предок исключений предметной области. Стек не заполняется: такие исключения означают ответ
+ * 4xx (или 503, пока индекс не построен) и обрабатываются в {@code ExceptionHandlerController}, где стек
+ * не пишется в лог и не отдаётся клиенту, а его сбор — самая дорогая часть создания исключения.
+ * Подавленные исключения тоже отключены.
+ */
+public abstract class FilmorateException extends RuntimeException {
+    protected FilmorateException(final String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+/**
+ * Индекс фильмов ещё не построен: фоновое построение упало и ждёт повтора. Ответ — 503, клиент может повторить запрос.
+ */
+public class IndexNotReadyException extends FilmorateException {
+    public IndexNotReadyException(final String message) {
+        super(message);
+    }
+}
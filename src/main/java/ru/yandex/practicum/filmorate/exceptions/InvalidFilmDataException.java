@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
-public class InvalidFilmDataException extends RuntimeException {
+public class InvalidFilmDataException extends FilmorateException {
     public InvalidFilmDataException(final String message) {
         super(message);
     }
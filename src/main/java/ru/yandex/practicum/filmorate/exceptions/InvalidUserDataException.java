@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
-public class InvalidUserDataException extends RuntimeException {
+public class InvalidUserDataException extends FilmorateException {
     public InvalidUserDataException(final String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
-public class NoFilmFoundException extends RuntimeException {
+public class NoFilmFoundException extends FilmorateException {
     public NoFilmFoundException(final String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
-public class NoUserFoundException extends RuntimeException {
+public class NoUserFoundException extends FilmorateException {
     public NoUserFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+/**
+ * Не выполнено условие из заголовка If-Match: версия записи не совпала с ETag клиента
+ * или записи с {@code If-Match: *} не существует.
+ */
+public class PreconditionFailedException extends FilmorateException {
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+public class UserAlreadyExistsException extends FilmorateException {
+    public UserAlreadyExistsException(String message) {
+        super(message);
+    }
+}
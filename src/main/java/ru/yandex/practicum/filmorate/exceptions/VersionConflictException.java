@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+/**
+ * Условное изменение не выполнено: запись успели изменить после того, как клиент прочитал её версию.
+ */
+public class VersionConflictException extends FilmorateException {
+    public VersionConflictException(final String message) {
+        super(message);
+    }
+}
@@ -6,7 +6,7 @@ import lombok.Setter;
 import lombok.ToString;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * Film.
@@ -20,8 +20,11 @@ public class Film {
     String name;
     String description;
     @JsonFormat(pattern = "yyyy-MM-dd")
-    Date releaseDate;
+    LocalDate releaseDate;
     Integer duration;
+    // Номер версии записи: хранилище выставляет 1 при добавлении и увеличивает при каждом изменении.
+    // Клиент возвращает его в If-Match или в поле version при изменении, см. update(..., expectedVersion)
+    long version;
 
     public static Film of(FilmDto dto) {
         Film film = new Film();
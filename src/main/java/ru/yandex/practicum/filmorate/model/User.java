@@ -6,7 +6,7 @@ import lombok.Setter;
 import lombok.ToString;
 import ru.yandex.practicum.filmorate.dto.UserDto;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * User.
@@ -21,7 +21,10 @@ public class User {
     String login;
     String name;
     @JsonFormat(pattern = "yyyy-MM-dd")
-    Date birthday;
+    LocalDate birthday;
+    // Номер версии записи: хранилище выставляет 1 при добавлении и увеличивает при каждом изменении.
+    // Клиент возвращает его в If-Match или в поле version при изменении, см. update(..., expectedVersion)
+    long version;
 
     public static User of(UserDto dto) {
         User user = new User();
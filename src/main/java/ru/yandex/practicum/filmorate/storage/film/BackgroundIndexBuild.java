@@ -0,0 +1,125 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exceptions.IndexNotReadyException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Построение индекса фильмов по данным хранилища в фоновом потоке.
+ * <p>
+ * Полный обход каталога при старте занимал секунды на сотнях тысяч фильмов и задерживал первый ответ
+ * приложения, хотя большинству запросов индекс не нужен. Теперь индекс строится параллельно с обслуживанием:
+ * правки, пришедшие во время построения, индексируются контроллером сразу, а устаревшая версия фильма
+ * из страницы хранилища отбрасывается проверкой версии в самом индексе. Запросы к индексу ждут конца построения.
+ * <p>
+ * Если чтение страницы или индексация упали (например, временная ошибка базы), обход повторяется
+ * с той же страницы с растущей паузой. Пока идёт пауза, запросы к индексу получают {@link IndexNotReadyException}.
+ */
+@Slf4j
+final class BackgroundIndexBuild {
+
+    private static final int PAGE_SIZE = 10_000;
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    private final String name;
+    private final FilmStorage filmStorage;
+    private final Consumer<List<Film>> indexer;
+    private final long initialBackoffMs;
+    // текущая попытка: завершается успешно после обхода всего хранилища или с ошибкой, если обход упал
+    private volatile CompletableFuture<Void> attempt = new CompletableFuture<>();
+
+    private BackgroundIndexBuild(String name, FilmStorage filmStorage, Consumer<List<Film>> indexer,
+                                 long initialBackoffMs) {
+        this.name = name;
+        this.filmStorage = filmStorage;
+        this.indexer = indexer;
+        this.initialBackoffMs = initialBackoffMs;
+    }
+
+    /**
+     * @return уже завершённое построение — для индекса, который заполняется только вызовами {@code index}
+     */
+    static BackgroundIndexBuild completed() {
+        BackgroundIndexBuild build = new BackgroundIndexBuild("empty", null, null, 0);
+        build.attempt.complete(null);
+        return build;
+    }
+
+    /**
+     * Запускает обход хранилища, передавая в {@code indexer} страницы фильмов.
+     */
+    static BackgroundIndexBuild start(String name, FilmStorage filmStorage, Consumer<List<Film>> indexer) {
+        return start(name, filmStorage, indexer, INITIAL_BACKOFF_MS);
+    }
+
+    static BackgroundIndexBuild start(String name, FilmStorage filmStorage, Consumer<List<Film>> indexer,
+                                      long initialBackoffMs) {
+        BackgroundIndexBuild build = new BackgroundIndexBuild(name, filmStorage, indexer, initialBackoffMs);
+        Thread thread = new Thread(build::run, name);
+        thread.setDaemon(true);
+        thread.start();
+        return build;
+    }
+
+    /**
+     * @return true, когда индекс построен по всем фильмам, лежавшим в хранилище при старте
+     */
+    boolean isReady() {
+        CompletableFuture<Void> current = attempt;
+        return current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    /**
+     * Ждёт конца текущей попытки построения.
+     *
+     * @throws IndexNotReadyException если попытка упала и следующая ещё не началась
+     */
+    void await() {
+        try {
+            attempt.join();
+        } catch (CompletionException e) {
+            throw new IndexNotReadyException("Index " + name + " is not built yet: " + e.getCause().getMessage());
+        }
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        long after = 0;
+        long indexed = 0;
+        long backoffMs = initialBackoffMs;
+        while (true) {
+            try {
+                List<Film> page;
+                do {
+                    page = filmStorage.findPage(after, PAGE_SIZE);
+                    indexer.accept(page);
+                    indexed += page.size();
+                    if (!page.isEmpty()) {
+                        after = page.get(page.size() - 1).getId();
+                    }
+                } while (page.size() == PAGE_SIZE);
+                log.info("Built {} over {} films in {} ms", name, indexed, (System.nanoTime() - start) / 1_000_000);
+                attempt.complete(null);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to build {} after {} films, retrying in {} ms", name, indexed, backoffMs, e);
+                attempt.completeExceptionally(e);
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            attempt = new CompletableFuture<>();
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Кеш фильмов по id перед основным хранилищем.
+ * <p>
+ * Чтение по id идёт через кеш (read-through), добавленные и изменённые фильмы сразу кладутся в кеш
+ * (write-through). Страницы и полный список в кеш не попадают: прочитанный в них фильм мог быть изменён
+ * до возврата из хранилища, и в кеш вернулась бы старая версия. Вытеснение — по размеру
+ * (Caffeine, W-TinyLFU) и по времени с момента записи.
+ * <p>
+ * Бин помечен {@link Primary}, поэтому все потребители {@link FilmStorage} получают кеш, а сам кеш
+ * получает единственное оставшееся хранилище, выбранное через {@code filmorate.storage.type}.
+ * <p>
+ * Статистика кеша публикуется в метриках {@code cache.*} с тегом {@code cache=films}.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "filmorate.cache.films.enabled", havingValue = "true")
+public class CachingFilmStorage implements FilmStorage, MeterBinder {
+
+    private final FilmStorage delegate;
+    private final Cache<Long, Film> cache;
+
+    @Autowired
+    public CachingFilmStorage(FilmStorage delegate,
+                              @Value("${filmorate.cache.films.maximum-size}") long maximumSize,
+                              @Value("${filmorate.cache.films.expire-after-write}") Duration expireAfterWrite) {
+        this(delegate, maximumSize, expireAfterWrite, Ticker.systemTicker(), Runnable::run);
+        log.info("Film cache enabled: maximum size {}, expire after write {}, delegate {}",
+                maximumSize, expireAfterWrite, delegate.getClass().getSimpleName());
+    }
+
+    CachingFilmStorage(FilmStorage delegate, long maximumSize, Duration expireAfterWrite,
+                       Ticker ticker, Executor executor) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Film> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<Film> findById(long id) {
+        return Optional.ofNullable(cache.get(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Film add(Film film) {
+        return cache(delegate.add(film));
+    }
+
+    @Override
+    public List<Film> addAll(List<Film> newFilms) {
+        List<Film> added = delegate.addAll(newFilms);
+        added.forEach(this::cache);
+        return added;
+    }
+
+    @Override
+    public Film update(Film film) {
+        return cache(delegate.update(film));
+    }
+
+    @Override
+    public Film update(Film film, long expectedVersion) {
+        return cache(delegate.update(film, expectedVersion));
+    }
+
+    /**
+     * Счётчики попаданий, промахов и вытеснений для подбора размера кеша.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "films");
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Запись в кеш не упорядочена с записью в хранилище: добавление или изменение может положить фильм
+     * в кеш уже после того, как более позднее изменение положило свою версию. Поэтому из двух версий
+     * в кеше остаётся старшая.
+     */
+    private Film cache(Film film) {
+        cache.asMap().merge(film.getId(), film,
+                (cached, written) -> written.getVersion() >= cached.getVersion() ? written : cached);
+        return film;
+    }
+
+}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.persistence.PersistentStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Хранилище фильмов в памяти, переживающее перезапуск: изменения пишутся в журнал в каталоге
+ * {@code filmorate.storage.file.dir}, при старте состояние восстанавливается из снимка и хвоста журнала.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "file")
+public class FileFilmStorage implements FilmStorage {
+
+    private final InMemoryFilmStorage films;
+    private final PersistentStore<Film> store;
+
+    public FileFilmStorage(@Value("${filmorate.storage.file.dir}") Path dataDir,
+                           @Value("${filmorate.storage.file.snapshot-every}") long snapshotEvery) throws IOException {
+        SortedMap<Long, Film> recovered = new TreeMap<>();
+        store = new PersistentStore<>(dataDir.resolve("films"), new FilmRecordCodec(), snapshotEvery, this::findAll);
+        store.recover(film -> recovered.put(film.getId(), film));
+        films = new InMemoryFilmStorage(recovered);
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        return films.findAll();
+    }
+
+    @Override
+    public List<Film> findPage(long afterId, int limit) {
+        return films.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<Film> findById(long id) {
+        return films.findById(id);
+    }
+
+    @Override
+    public long count() {
+        return films.count();
+    }
+
+    @Override
+    public Film add(Film film) {
+        return store.write(() -> films.add(film), List::of);
+    }
+
+    @Override
+    public List<Film> addAll(List<Film> newFilms) {
+        return store.write(() -> films.addAll(newFilms), added -> added);
+    }
+
+    @Override
+    public Film update(Film film) {
+        return store.write(() -> films.update(film), List::of);
+    }
+
+    @Override
+    public Film update(Film film, long expectedVersion) {
+        return store.write(() -> films.update(film, expectedVersion), List::of);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+}
@@ -0,0 +1,231 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Вторичные индексы фильмов по дате выхода и продолжительности для выборки по диапазонам.
+ * <p>
+ * Каждый индекс — упорядоченная карта значение → множество id фильмов на примитивах ({@link Postings}),
+ * так что диапазон читается за O(log n + k). Прямые индексы id → значение нужны, чтобы при изменении
+ * фильма убрать его из старой ячейки, и чтобы проверить второе условие без чтения фильма из хранилища.
+ * Версии фильмов лежат в карте, упорядоченной по id, поэтому фильмы можно обойти по возрастанию id от курсора.
+ * <p>
+ * Индексы обновляются после записи в хранилище, и параллельные правки одного фильма могут прийти
+ * в обратном порядке. Поэтому для каждого фильма хранится проиндексированная версия, а более старая
+ * версия не индексируется. Между записью и индексацией индекс может отставать от хранилища, так что
+ * вызывающий код перепроверяет условия на прочитанных фильмах.
+ * <p>
+ * По фильмам, лежавшим в хранилище при старте, индексы строятся в фоне ({@link BackgroundIndexBuild}),
+ * и выборка до конца построения ждёт его или, если построение упало и ждёт повтора,
+ * отвечает {@link ru.yandex.practicum.filmorate.exceptions.IndexNotReadyException}.
+ */
+@Component
+public class FilmFilterIndex {
+
+    private final NavigableMap<Integer, Postings> byReleaseDay = new TreeMap<>();
+    private final NavigableMap<Integer, Postings> byDuration = new TreeMap<>();
+    private final Postings releaseDays = new Postings();
+    private final Postings durations = new Postings();
+    private final NavigableMap<Long, Long> versions = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BackgroundIndexBuild build;
+
+    public FilmFilterIndex() {
+        build = BackgroundIndexBuild.completed();
+    }
+
+    /**
+     * Строит индекс по фильмам, уже лежащим в хранилище, в фоновом потоке.
+     */
+    @Autowired
+    public FilmFilterIndex(FilmStorage filmStorage) {
+        build = BackgroundIndexBuild.start("film-filter-index", filmStorage, this::indexAll);
+    }
+
+    /**
+     * @return true, когда индекс построен по всем фильмам, лежавшим в хранилище при старте
+     */
+    public boolean isReady() {
+        return build.isReady();
+    }
+
+    /**
+     * День выхода фильма как число дней от 1970-01-01, в таком виде хранится ключ индекса.
+     * Даты вне диапазона int прижимаются к его границам.
+     */
+    public static int toEpochDay(LocalDate date) {
+        return Math.clamp(date.toEpochDay(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Добавляет фильм в индексы или переносит его при изменении даты выхода и продолжительности.
+     * Версия старше проиндексированной пропускается.
+     */
+    public void index(Film film) {
+        indexAll(List.of(film));
+    }
+
+    public void indexAll(Collection<Film> films) {
+        if (films.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Film film : films) {
+                Long indexed = versions.get(film.getId());
+                if (indexed != null && indexed > film.getVersion()) {
+                    continue;
+                }
+                versions.put(film.getId(), film.getVersion());
+                if (film.getReleaseDate() != null) {
+                    move(byReleaseDay, releaseDays, film.getId(), toEpochDay(film.getReleaseDate()));
+                }
+                if (film.getDuration() != null) {
+                    move(byDuration, durations, film.getId(), film.getDuration());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает по возрастанию не более {@code limit} id фильмов больше {@code afterId}, у которых день выхода
+     * и продолжительность попадают в заданные включительные границы.
+     * <p>
+     * Из двух способов выбирается более дешёвый. Если условиям отвечает малая часть каталога, кандидаты берутся
+     * из индекса, где в диапазон попадает меньше фильмов, а наименьшие id отбираются ограниченной кучей:
+     * O(k log limit) без сортировки всего диапазона. Если отвечает заметная доля, фильмы обходятся по возрастанию
+     * id от курсора с проверкой обоих условий по прямым индексам, пока не наберётся страница. Тогда проход всех
+     * страниц курсором стоит O(n), а не O(k) на каждую страницу.
+     */
+    public long[] find(int fromDay, int toDay, int minDuration, int maxDuration, long afterId, int limit) {
+        if (fromDay > toDay || minDuration > maxDuration || limit < 1) {
+            return new long[0];
+        }
+        build.await();
+        lock.readLock().lock();
+        try {
+            Collection<Postings> dayRange = byReleaseDay.subMap(fromDay, true, toDay, true).values();
+            Collection<Postings> durationRange = byDuration.subMap(minDuration, true, maxDuration, true).values();
+            long dayCount = count(dayRange);
+            long durationCount = count(durationRange);
+            boolean byDay = dayCount <= durationCount;
+            long candidates = Math.min(dayCount, durationCount);
+            if (candidates == 0) {
+                return new long[0];
+            }
+            // при равномерном распределении до конца страницы обходится около limit * n / k фильмов
+            if ((double) limit * versions.size() / candidates < candidates) {
+                long[] page = walk(fromDay, toDay, minDuration, maxDuration, afterId, limit, candidates);
+                if (page != null) {
+                    return page;
+                }
+            }
+            return scan(byDay ? dayRange : durationRange, byDay, fromDay, toDay, minDuration, maxDuration,
+                    afterId, (int) Math.min(limit, candidates));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обход фильмов по возрастанию id от курсора.
+     *
+     * @return страница или null, если за {@code budget} фильмов страница не набралась
+     */
+    private long[] walk(int fromDay, int toDay, int minDuration, int maxDuration, long afterId, int limit,
+                        long budget) {
+        long[] ids = new long[limit];
+        int size = 0;
+        long visited = 0;
+        for (long id : versions.navigableKeySet().tailSet(afterId, false)) {
+            if (++visited > budget) {
+                return null;
+            }
+            if (inRange(releaseDays, id, fromDay, toDay) && inRange(durations, id, minDuration, maxDuration)) {
+                ids[size++] = id;
+                if (size == limit) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Отбор наименьших id после курсора из кандидатов одного индекса ограниченной кучей.
+     */
+    private long[] scan(Collection<Postings> range, boolean byDay, int fromDay, int toDay,
+                        int minDuration, int maxDuration, long afterId, int limit) {
+        PriorityQueue<Long> smallest = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        for (Postings postings : range) {
+            for (int slot = 0; slot < postings.capacity(); slot++) {
+                long id = postings.idAt(slot);
+                if (id == Long.MIN_VALUE || id <= afterId
+                        || smallest.size() == limit && id >= smallest.peek()) {
+                    continue;
+                }
+                boolean matches = byDay
+                        ? inRange(durations, id, minDuration, maxDuration)
+                        : inRange(releaseDays, id, fromDay, toDay);
+                if (matches) {
+                    smallest.add(id);
+                    if (smallest.size() > limit) {
+                        smallest.poll();
+                    }
+                }
+            }
+        }
+        long[] result = new long[smallest.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = smallest.poll();
+        }
+        return result;
+    }
+
+    private static void move(NavigableMap<Integer, Postings> index, Postings forward, long id, int value) {
+        if (forward.contains(id)) {
+            int previous = forward.get(id);
+            if (previous == value) {
+                return;
+            }
+            Postings old = index.get(previous);
+            old.remove(id);
+            if (old.size() == 0) {
+                index.remove(previous);
+            }
+        }
+        forward.put(id, value);
+        index.computeIfAbsent(value, key -> new Postings()).put(id, 1);
+    }
+
+    private static boolean inRange(Postings forward, long id, int from, int to) {
+        if (!forward.contains(id)) {
+            return false;
+        }
+        int value = forward.get(id);
+        return value >= from && value <= to;
+    }
+
+    private static long count(Collection<Postings> range) {
+        long count = 0;
+        for (Postings postings : range) {
+            count += postings.size();
+        }
+        return count;
+    }
+
+}
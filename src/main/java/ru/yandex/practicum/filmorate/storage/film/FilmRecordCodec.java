@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.persistence.RecordCodec;
+
+import java.nio.ByteBuffer;
+
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.getNullableDate;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.getNullableInt;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.getString;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.putNullableDate;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.putNullableInt;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.putString;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.sizeOf;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.utf8;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.written;
+
+/**
+ * Бинарная запись фильма: id, version, name, description, releaseDate (миллисекунды эпохи на полночь UTC), duration.
+ */
+public class FilmRecordCodec implements RecordCodec<Film> {
+
+    private static final int FIXED_SIZE = 2 * Long.BYTES + (1 + Long.BYTES) + (1 + Integer.BYTES);
+
+    @Override
+    public byte[] encode(Film film) {
+        byte[] name = utf8(film.getName());
+        byte[] description = utf8(film.getDescription());
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + sizeOf(name) + sizeOf(description));
+        buffer.putLong(film.getId());
+        buffer.putLong(film.getVersion());
+        putString(buffer, name);
+        putString(buffer, description);
+        putNullableDate(buffer, film.getReleaseDate());
+        putNullableInt(buffer, film.getDuration());
+        return written(buffer);
+    }
+
+    @Override
+    public Film decode(ByteBuffer buffer) {
+        Film film = new Film();
+        film.setId(buffer.getLong());
+        film.setVersion(buffer.getLong());
+        film.setName(getString(buffer));
+        film.setDescription(getString(buffer));
+        film.setReleaseDate(getNullableDate(buffer));
+        film.setDuration(getNullableInt(buffer));
+        return film;
+    }
+
+}
@@ -0,0 +1,272 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс для полнотекстового поиска по названию и описанию фильмов.
+ * <p>
+ * Текст разбивается на слова из букв и цифр и приводится к нижнему регистру. Словарь термов упорядочен,
+ * поэтому префиксный поиск — это обход диапазона словаря; в поиск из него идут не больше
+ * {@link #MAX_PREFIX_TERMS} самых частых термов. Вес терма в фильме — число вхождений, вхождение
+ * в название весит {@link #NAME_WEIGHT}. Релевантность — сумма по словам запроса веса × idf лучшего
+ * подходящего терма. Индекс обновляется при каждом добавлении и изменении фильма:
+ * старые термы фильма удаляются по прямому индексу фильм → термы.
+ * <p>
+ * Индекс обновляется после записи в хранилище, и параллельные правки одного фильма могут прийти
+ * в обратном порядке. Поэтому прямой индекс помнит версию фильма, а более старая версия не индексируется.
+ * <p>
+ * По фильмам, лежавшим в хранилище при старте, индекс строится в фоне ({@link BackgroundIndexBuild}),
+ * и поиск до конца построения ждёт его или, если построение упало и ждёт повтора,
+ * отвечает {@link ru.yandex.practicum.filmorate.exceptions.IndexNotReadyException}.
+ */
+@Component
+public class FilmSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparing(Comparator.comparingLong(Hit::filmId).reversed());
+
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, IndexedFilm> filmTerms = new ConcurrentHashMap<>();
+    // Списки вхождений не потокобезопасны: поиск берёт блокировку на чтение, изменения — на запись
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BackgroundIndexBuild build;
+
+    public FilmSearchIndex() {
+        build = BackgroundIndexBuild.completed();
+    }
+
+    /**
+     * Строит индекс по фильмам, уже лежащим в хранилище, в фоновом потоке.
+     */
+    @Autowired
+    public FilmSearchIndex(FilmStorage filmStorage) {
+        build = BackgroundIndexBuild.start("film-search-index", filmStorage, this::indexAll);
+    }
+
+    /**
+     * @return true, когда индекс построен по всем фильмам, лежавшим в хранилище при старте
+     */
+    public boolean isReady() {
+        return build.isReady();
+    }
+
+    /**
+     * Добавляет фильм в индекс или заменяет его прежнюю версию. Версия старше проиндексированной пропускается.
+     */
+    public void index(Film film) {
+        indexAll(List.of(film));
+    }
+
+    public void indexAll(Collection<Film> films) {
+        if (films.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Film film : films) {
+                indexLocked(film);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет фильмы, в которых встречаются все слова запроса. Последнее слово ищется по префиксу,
+     * чтобы поиск работал по мере набора текста.
+     *
+     * @return id не более {@code limit} фильмов по убыванию релевантности, при равенстве — по возрастанию id
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        build.await();
+        lock.readLock().lock();
+        try {
+            return searchLocked(words, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT).replace('ё', 'е'));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void indexLocked(Film film) {
+        long id = film.getId();
+        IndexedFilm previous = filmTerms.get(id);
+        if (previous != null && previous.version() > film.getVersion()) {
+            return;
+        }
+        if (previous != null) {
+            for (String term : previous.terms()) {
+                Postings postings = terms.get(term);
+                postings.remove(id);
+                if (postings.size() == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(film.getName())) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(film.getDescription())) {
+            weights.merge(token, 1, Integer::sum);
+        }
+        String[] filmTermArray = new String[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            Postings postings = terms.computeIfAbsent(entry.getKey(), term -> new Postings());
+            postings.put(id, entry.getValue());
+            // храним ключ словаря, а не новую строку, чтобы прямой индекс не дублировал термы
+            filmTermArray[i++] = terms.ceilingKey(entry.getKey());
+        }
+        filmTerms.put(id, new IndexedFilm(film.getVersion(), filmTermArray));
+    }
+
+    private List<Long> searchLocked(List<String> words, int limit) {
+        int films = Math.max(1, filmTerms.size());
+        List<List<Postings>> matches = new ArrayList<>(words.size());
+        int driver = 0;
+        long driverSize = Long.MAX_VALUE;
+        for (int w = 0; w < words.size(); w++) {
+            List<Postings> wordMatches = w == words.size() - 1 ? prefixMatches(words.get(w)) : exactMatch(words.get(w));
+            if (wordMatches.isEmpty()) {
+                return List.of();
+            }
+            long size = 0;
+            for (Postings postings : wordMatches) {
+                size += postings.size();
+            }
+            if (size < driverSize) {
+                driver = w;
+                driverSize = size;
+            }
+            matches.add(wordMatches);
+        }
+
+        // кандидаты берутся из самого редкого слова запроса, остальные слова проверяются поиском в хеш-таблице
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        Postings seen = matches.get(driver).size() > 1 ? new Postings() : null;
+        for (Postings driverPostings : matches.get(driver)) {
+            for (int slot = 0; slot < driverPostings.capacity(); slot++) {
+                long id = driverPostings.idAt(slot);
+                if (id == Long.MIN_VALUE || seen != null && seen.put(id, 1) != 0) {
+                    continue;
+                }
+                double score = score(id, matches, films);
+                if (score > 0) {
+                    offer(best, new Hit(id, score), limit);
+                }
+            }
+        }
+        List<Long> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().filmId());
+        }
+        return result.reversed();
+    }
+
+    private List<Postings> exactMatch(String word) {
+        Postings postings = terms.get(word);
+        return postings == null ? List.of() : List.of(postings);
+    }
+
+    /**
+     * Термы с префиксом последнего слова запроса. Если их больше {@link #MAX_PREFIX_TERMS}, берутся
+     * встречающиеся в наибольшем числе фильмов, а не первые по алфавиту: иначе на коротком префиксе
+     * частые продолжения вроде «star» отсекались бы редкими, стоящими в словаре раньше.
+     * Терм, совпадающий с префиксом целиком, берётся всегда.
+     */
+    private List<Postings> prefixMatches(String prefix) {
+        Postings exact = terms.get(prefix);
+        PriorityQueue<Postings> largest = new PriorityQueue<>(MAX_PREFIX_TERMS + 1,
+                Comparator.comparingInt(Postings::size));
+        for (Postings postings : terms.subMap(prefix, false, prefix + Character.MAX_VALUE, false).values()) {
+            largest.add(postings);
+            if (largest.size() > MAX_PREFIX_TERMS) {
+                largest.poll();
+            }
+        }
+        List<Postings> matches = new ArrayList<>(largest.size() + 1);
+        if (exact != null) {
+            matches.add(exact);
+            if (largest.size() == MAX_PREFIX_TERMS) {
+                largest.poll();
+            }
+        }
+        matches.addAll(largest);
+        return matches;
+    }
+
+    /**
+     * @return релевантность фильма или 0, если хотя бы одного слова запроса в фильме нет
+     */
+    private static double score(long id, List<List<Postings>> matches, int films) {
+        double score = 0;
+        for (List<Postings> wordMatches : matches) {
+            double best = 0;
+            for (Postings postings : wordMatches) {
+                int weight = postings.get(id);
+                if (weight > 0) {
+                    best = Math.max(best, weight * Math.log(1 + (double) films / postings.size()));
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, Hit hit, int limit) {
+        if (best.size() < limit) {
+            best.add(hit);
+        } else if (WORST_FIRST.compare(hit, best.peek()) > 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    private record Hit(long filmId, double score) {
+    }
+
+    private record IndexedFilm(long version, String[] terms) {
+    }
+
+}
@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface FilmStorage {
+
+    Collection<Film> findAll();
+
+    /**
+     * Возвращает не более {@code limit} фильмов с id строго больше {@code afterId}, упорядоченных по id.
+     */
+    List<Film> findPage(long afterId, int limit);
+
+    Optional<Film> findById(long id);
+
+    /**
+     * Число фильмов в хранилище. Вызывается при снятии метрик, а не на пути запроса.
+     */
+    long count();
+
+    /**
+     * Сохраняет фильм. Если id не задан или уже занят, фильму выдаётся новый id.
+     */
+    Film add(Film film);
+
+    /**
+     * Сохраняет пачку фильмов одной операцией. Id из запроса игнорируются: под всю пачку
+     * сразу резервируется непрерывный блок новых id.
+     */
+    List<Film> addAll(List<Film> newFilms);
+
+    /**
+     * Заменяет существующий фильм.
+     *
+     * @throws ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException если фильма с таким id нет
+     */
+    Film update(Film film);
+
+    /**
+     * Заменяет фильм, только если его текущая версия равна {@code expectedVersion}: проверка и замена
+     * выполняются атомарно, без блокировки всего хранилища.
+     *
+     * @throws ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException если фильма с таким id нет
+     * @throws ru.yandex.practicum.filmorate.exceptions.VersionConflictException если версия уже другая
+     */
+    Film update(Film film, long expectedVersion);
+
+}
@@ -0,0 +1,143 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryFilmStorage implements FilmStorage {
+
+    // Упорядоченная по id карта: курсорная пагинация сводится к tailMap без сортировки каталога
+    private final ConcurrentNavigableMap<Long, Film> films;
+    private final AtomicLong filmCurrentId;
+
+    public InMemoryFilmStorage() {
+        this(Collections.emptySortedMap());
+    }
+
+    /**
+     * Строит хранилище из готового упорядоченного по id набора фильмов за линейное время,
+     * без поштучных вставок. Используется при восстановлении с диска.
+     */
+    public InMemoryFilmStorage(SortedMap<Long, Film> initial) {
+        films = new ConcurrentSkipListMap<>(initial);
+        filmCurrentId = new AtomicLong(initial.isEmpty() ? 1L : initial.lastKey() + 1);
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        return new ArrayList<>(films.values());
+    }
+
+    @Override
+    public List<Film> findPage(long afterId, int limit) {
+        List<Film> page = new ArrayList<>(limit);
+        for (Film film : films.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(film);
+        }
+        return page;
+    }
+
+    @Override
+    public Optional<Film> findById(long id) {
+        return Optional.ofNullable(films.get(id));
+    }
+
+    @Override
+    public long count() {
+        // size() у ConcurrentSkipListMap обходит карту, но вызывается только при снятии метрик
+        return films.size();
+    }
+
+    @Override
+    public Film add(Film film) {
+        // курсоры страниц и потоков начинаются с after=0, и фильм с id 0 или меньше в них бы не попал
+        Long requestedId = film.getId() != null && film.getId() > 0 ? film.getId() : null;
+        film.setVersion(1);
+        if (requestedId != null && films.putIfAbsent(requestedId, film) == null) {
+            // id из запроса свободен — сдвигаем счётчик, чтобы не выдать его повторно
+            filmCurrentId.accumulateAndGet(requestedId + 1, Math::max);
+            return film;
+        }
+        long id = nextFreeId(film);
+        if (requestedId == null) {
+            log.debug("Film id is empty. Set new id: {}", id);
+        } else {
+            log.warn("Film with id {} already exists. Set new id: {}", requestedId, id);
+        }
+        return film;
+    }
+
+    @Override
+    public List<Film> addAll(List<Film> newFilms) {
+        long id = filmCurrentId.getAndAdd(newFilms.size());
+        for (Film film : newFilms) {
+            film.setId(id++);
+            film.setVersion(1);
+            if (films.putIfAbsent(film.getId(), film) != null) {
+                // id из блока успел занять фильм с явно заданным id
+                nextFreeId(film);
+            }
+        }
+        return newFilms;
+    }
+
+    @Override
+    public Film update(Film film) {
+        if (films.computeIfPresent(film.getId(), (id, current) -> nextVersion(current, film)) == null) {
+            throw new NoFilmFoundException("Film with id " + film.getId() + " does not exist");
+        }
+        return film;
+    }
+
+    @Override
+    public Film update(Film film, long expectedVersion) {
+        // ConcurrentSkipListMap.computeIfPresent не атомарен: значение заменяется через CAS, и при гонке
+        // функция вызывается заново с новым текущим значением. Поэтому функция без побочных эффектов,
+        // кроме версии фильма, которую повторный вызов перезаписывает: замена проходит, только если
+        // current на момент CAS имел ожидаемую версию, а исключение оставляет прежнюю запись на месте
+        if (films.computeIfPresent(film.getId(), (id, current) -> {
+            if (current.getVersion() != expectedVersion) {
+                throw new VersionConflictException("Film with id " + id + " has version " + current.getVersion()
+                        + ", expected " + expectedVersion);
+            }
+            return nextVersion(current, film);
+        }) == null) {
+            throw new NoFilmFoundException("Film with id " + film.getId() + " does not exist");
+        }
+        return film;
+    }
+
+    private static Film nextVersion(Film current, Film film) {
+        film.setVersion(current.getVersion() + 1);
+        return film;
+    }
+
+    private long nextFreeId(Film film) {
+        long id;
+        do {
+            id = filmCurrentId.getAndIncrement();
+            film.setId(id);
+        } while (films.putIfAbsent(id, film) != null);
+        return id;
+    }
+
+}
@@ -0,0 +1,226 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "jdbc")
+public class JdbcFilmStorage implements FilmStorage {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String SELECT = "SELECT id, name, description, release_date, duration, version FROM films";
+    private static final String INSERT =
+            "INSERT INTO films (name, description, release_date, duration, id) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE films SET name = ?, description = ?, release_date = ?, duration = ?, version = version + 1 WHERE id = ?";
+    private static final String UPDATE_RETURNING_VERSION = "SELECT version FROM FINAL TABLE (" + UPDATE + ")";
+    private static final String UPDATE_IF_VERSION = UPDATE + " AND version = ?";
+    private static final String NEXT_IDS = "SELECT NEXT VALUE FOR film_id_seq FROM SYSTEM_RANGE(1, ?)";
+
+    private static final RowMapper<Film> FILM_ROW_MAPPER = (rs, rowNum) -> {
+        Film film = new Film();
+        film.setId(rs.getLong("id"));
+        film.setName(rs.getString("name"));
+        film.setDescription(rs.getString("description"));
+        film.setReleaseDate(rs.getObject("release_date", LocalDate.class));
+        film.setDuration(rs.getInt("duration"));
+        film.setVersion(rs.getLong("version"));
+        return film;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+
+    public JdbcFilmStorage(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // вложенная транзакция — точка сохранения, если вызов уже идёт внутри транзакции
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    @Override
+    public Collection<Film> findAll() {
+        return jdbcTemplate.query(SELECT + " ORDER BY id", FILM_ROW_MAPPER);
+    }
+
+    @Override
+    public List<Film> findPage(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT + " WHERE id > ? ORDER BY id LIMIT ?", FILM_ROW_MAPPER, afterId, limit);
+    }
+
+    @Override
+    public Optional<Film> findById(long id) {
+        return jdbcTemplate.query(SELECT + " WHERE id = ?", FILM_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM films", Long.class);
+    }
+
+    @Override
+    public Film add(Film film) {
+        // курсоры страниц и потоков начинаются с after=0, и фильм с id 0 или меньше в них бы не попал
+        Long requestedId = film.getId() != null && film.getId() > 0 ? film.getId() : null;
+        film.setVersion(1);
+        if (requestedId != null && tryInsert(film)) {
+            return film;
+        }
+        long id = nextFreeId(film);
+        if (requestedId == null) {
+            log.debug("Film id is empty. Set new id: {}", id);
+        } else {
+            log.warn("Film with id {} already exists. Set new id: {}", requestedId, id);
+        }
+        return film;
+    }
+
+    @Override
+    public List<Film> addAll(List<Film> newFilms) {
+        if (newFilms.isEmpty()) {
+            return newFilms;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS, Long.class, newFilms.size());
+        for (int i = 0; i < newFilms.size(); i++) {
+            newFilms.get(i).setId(ids.get(i));
+            newFilms.get(i).setVersion(1);
+        }
+        insertAll(newFilms);
+        return newFilms;
+    }
+
+    @Override
+    public Film update(Film film) {
+        List<Long> versions = jdbcTemplate.query(UPDATE_RETURNING_VERSION, ps -> setParameters(ps, film),
+                (rs, rowNum) -> rs.getLong(1));
+        if (versions.isEmpty()) {
+            throw new NoFilmFoundException("Film with id " + film.getId() + " does not exist");
+        }
+        film.setVersion(versions.get(0));
+        return film;
+    }
+
+    /**
+     * Версия сверяется в условии самого UPDATE, поэтому новая версия известна без дочитывания:
+     * строка обновлена только если была ровно {@code expectedVersion}.
+     */
+    @Override
+    public Film update(Film film, long expectedVersion) {
+        int count = jdbcTemplate.update(UPDATE_IF_VERSION, ps -> {
+            setParameters(ps, film);
+            ps.setLong(6, expectedVersion);
+        });
+        if (count == 0) {
+            List<Long> versions = jdbcTemplate.query("SELECT version FROM films WHERE id = ?",
+                    (rs, rowNum) -> rs.getLong(1), film.getId());
+            if (versions.isEmpty()) {
+                throw new NoFilmFoundException("Film with id " + film.getId() + " does not exist");
+            }
+            throw new VersionConflictException("Film with id " + film.getId() + " has version " + versions.get(0)
+                    + ", expected " + expectedVersion);
+        }
+        film.setVersion(expectedVersion + 1);
+        return film;
+    }
+
+    /**
+     * Каждая пачка идёт в своей транзакции. Если вставка части строк упала на занятом id, по одному
+     * досохраняются только строки с {@link Statement#EXECUTE_FAILED}. Если по счётчикам драйвера нельзя
+     * понять, какие строки вставлены, пачка откатывается целиком и сохраняется по одной строке:
+     * иначе повторная вставка уже сохранённых строк дала бы дубликаты с новыми id.
+     */
+    private void insertAll(List<Film> films) {
+        for (int from = 0; from < films.size(); from += BATCH_SIZE) {
+            List<Film> batch = films.subList(from, Math.min(films.size(), from + BATCH_SIZE));
+            int[] counts = batchTransaction.execute(status -> {
+                try {
+                    jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), JdbcFilmStorage::setParameters);
+                    return null;
+                } catch (DuplicateKeyException e) {
+                    int[] known = knownUpdateCounts(e, batch.size());
+                    if (known != null) {
+                        log.warn("Film id block collided with existing ids, retrying failed inserts one by one");
+                        return known;
+                    }
+                    log.warn("Film batch insert failed without per-row results, rolling back and inserting one by one");
+                    status.setRollbackOnly();
+                    int[] failed = new int[batch.size()];
+                    Arrays.fill(failed, Statement.EXECUTE_FAILED);
+                    return failed;
+                }
+            });
+            if (counts == null) {
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED || counts[i] == 0) {
+                    Film film = batch.get(i);
+                    if (!tryInsert(film)) {
+                        nextFreeId(film);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return счётчики пачки, если по ним известен исход каждой строки, иначе null
+     */
+    private static int[] knownUpdateCounts(DuplicateKeyException e, int batchSize) {
+        if (!(e.getCause() instanceof BatchUpdateException batchException)) {
+            return null;
+        }
+        int[] counts = batchException.getUpdateCounts();
+        if (counts == null || counts.length != batchSize
+                || Arrays.stream(counts).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+            return null;
+        }
+        return counts;
+    }
+
+    private boolean tryInsert(Film film) {
+        try {
+            jdbcTemplate.update(INSERT, ps -> setParameters(ps, film));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private long nextFreeId(Film film) {
+        do {
+            film.setId(jdbcTemplate.queryForObject(NEXT_IDS, Long.class, 1));
+        } while (!tryInsert(film));
+        return film.getId();
+    }
+
+    private static void setParameters(PreparedStatement ps, Film film) throws SQLException {
+        ps.setString(1, film.getName());
+        ps.setString(2, film.getDescription());
+        ps.setObject(3, film.getReleaseDate());
+        ps.setInt(4, film.getDuration());
+        ps.setLong(5, film.getId());
+    }
+
+}
@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import java.util.Arrays;
+
+/**
+ * Список вхождений терма: id фильма → вес терма в фильме. Используется и как отображение
+ * id фильма → значение в индексах {@link FilmFilterIndex}.
+ * <p>
+ * Хеш-таблица с открытой адресацией на примитивных массивах: без упаковки в Long/Integer и без узлов,
+ * около 12 байт на вхождение при заполнении до 3/4. Удаление — со сдвигом следующих элементов назад,
+ * без надгробий. Класс не потокобезопасен, синхронизацию обеспечивает владеющий им индекс.
+ */
+final class Postings {
+
+    private static final long FREE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids;
+    private int[] weights;
+    private int size;
+
+    Postings() {
+        ids = new long[INITIAL_CAPACITY];
+        weights = new int[INITIAL_CAPACITY];
+        Arrays.fill(ids, FREE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return вес терма в фильме или 0, если фильма в списке нет
+     */
+    int get(long id) {
+        int slot = find(id);
+        return slot < 0 ? 0 : weights[slot];
+    }
+
+    boolean contains(long id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * @return прежний вес или 0, если фильма в списке не было
+     */
+    int put(long id, int weight) {
+        if ((size + 1) * 4 > ids.length * 3) {
+            resize(ids.length * 2);
+        }
+        int mask = ids.length - 1;
+        int slot = slot(id, mask);
+        while (ids[slot] != FREE) {
+            if (ids[slot] == id) {
+                int previous = weights[slot];
+                weights[slot] = weight;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        weights[slot] = weight;
+        size++;
+        return 0;
+    }
+
+    void remove(long id) {
+        int mask = ids.length - 1;
+        int slot = slot(id, mask);
+        while (ids[slot] != id) {
+            if (ids[slot] == FREE) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        size--;
+        // сдвигаем назад элементы той же цепочки, чтобы поиск не оборвался на освободившейся ячейке
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (ids[next] == FREE) {
+                ids[slot] = FREE;
+                return;
+            }
+            int home = slot(ids[next], mask);
+            boolean staysInPlace = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+            if (!staysInPlace) {
+                ids[slot] = ids[next];
+                weights[slot] = weights[next];
+                slot = next;
+            }
+        }
+    }
+
+    /**
+     * Ёмкость таблицы для обхода через {@link #idAt} и {@link #weightAt}.
+     */
+    int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * @return id в ячейке или {@link Long#MIN_VALUE}, если ячейка свободна
+     */
+    long idAt(int slot) {
+        return ids[slot];
+    }
+
+    int weightAt(int slot) {
+        return weights[slot];
+    }
+
+    private int find(long id) {
+        int mask = ids.length - 1;
+        for (int slot = slot(id, mask); ids[slot] != FREE; slot = (slot + 1) & mask) {
+            if (ids[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        int[] oldWeights = weights;
+        ids = new long[capacity];
+        weights = new int[capacity];
+        Arrays.fill(ids, FREE);
+        size = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != FREE) {
+                put(oldIds[i], oldWeights[i]);
+            }
+        }
+    }
+
+    private static int slot(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+}
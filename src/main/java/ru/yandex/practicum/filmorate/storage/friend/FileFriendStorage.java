@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.persistence.PersistentStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Граф дружбы в памяти, переживающий перезапуск: каждое добавление и удаление дружбы пишется в журнал
+ * в каталоге {@code filmorate.storage.file.dir}, при старте граф восстанавливается из снимка и хвоста журнала.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "file")
+public class FileFriendStorage implements FriendStorage {
+
+    private final InMemoryFriendStorage friends = new InMemoryFriendStorage();
+    private final PersistentStore<FriendshipRecord> store;
+
+    public FileFriendStorage(@Value("${filmorate.storage.file.dir}") Path dataDir,
+                             @Value("${filmorate.storage.file.snapshot-every}") long snapshotEvery) throws IOException {
+        store = new PersistentStore<>(dataDir.resolve("friends"), new FriendshipRecordCodec(), snapshotEvery,
+                friends::records);
+        // журнал может удалить дружбу из снимка, поэтому сначала собираются действующие пары,
+        // а граф строится из них одной сборкой
+        Set<FriendshipRecord> pairs = new HashSet<>();
+        store.recover(friendship -> {
+            FriendshipRecord pair = new FriendshipRecord(Math.min(friendship.userId(), friendship.friendId()),
+                    Math.max(friendship.userId(), friendship.friendId()), true);
+            if (friendship.friends()) {
+                pairs.add(pair);
+            } else {
+                pairs.remove(pair);
+            }
+        });
+        FriendGraphBuilder graph = new FriendGraphBuilder();
+        pairs.forEach(pair -> graph.add(pair.userId(), pair.friendId()));
+        friends.load(graph);
+    }
+
+    @Override
+    public boolean addFriend(long userId, long friendId) {
+        return store.write(() -> friends.addFriend(userId, friendId),
+                added -> added ? List.of(new FriendshipRecord(userId, friendId, true)) : List.of());
+    }
+
+    @Override
+    public boolean removeFriend(long userId, long friendId) {
+        return store.write(() -> friends.removeFriend(userId, friendId),
+                removed -> removed ? List.of(new FriendshipRecord(userId, friendId, false)) : List.of());
+    }
+
+    @Override
+    public long[] findFriendIds(long userId) {
+        return friends.findFriendIds(userId);
+    }
+
+    @Override
+    public long[] findCommonFriendIds(long userId, long otherId) {
+        return friends.findCommonFriendIds(userId, otherId);
+    }
+
+    @Override
+    public long[] findRecommendedIds(long userId, int limit) {
+        return friends.findRecommendedIds(userId, limit);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сборка графа дружбы при старте. Связи дописываются в растущие массивы по пользователю без сортировки,
+ * а в {@link #build()} каждый массив один раз сортируется и очищается от повторов: загрузка пользователя
+ * с n друзьями стоит O(n log n), а не O(n²), как при вставке по одной связи в отсортированный массив.
+ */
+final class FriendGraphBuilder {
+
+    private final Map<Long, Adjacency> adjacency = new HashMap<>();
+
+    /**
+     * Добавляет дружбу в обе стороны.
+     */
+    void add(long userId, long friendId) {
+        adjacency.computeIfAbsent(userId, id -> new Adjacency()).add(friendId);
+        adjacency.computeIfAbsent(friendId, id -> new Adjacency()).add(userId);
+    }
+
+    /**
+     * @return отсортированные массивы друзей без повторов по id пользователя
+     */
+    Map<Long, long[]> build() {
+        Map<Long, long[]> result = new HashMap<>(adjacency.size() * 2);
+        adjacency.forEach((userId, friends) -> result.put(userId, friends.toSortedArray()));
+        return result;
+    }
+
+    private static final class Adjacency {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] toSortedArray() {
+            Arrays.sort(ids, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || ids[i] != ids[unique - 1]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, unique);
+        }
+    }
+
+}
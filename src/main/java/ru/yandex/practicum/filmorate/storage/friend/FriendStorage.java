@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+public interface FriendStorage {
+
+    /**
+     * Добавляет взаимную дружбу между пользователями.
+     *
+     * @return {@code false}, если пользователи уже дружат
+     */
+    boolean addFriend(long userId, long friendId);
+
+    /**
+     * Удаляет дружбу в обе стороны.
+     *
+     * @return {@code false}, если пользователи не дружили
+     */
+    boolean removeFriend(long userId, long friendId);
+
+    /**
+     * Возвращает id друзей пользователя по возрастанию. Массив нельзя изменять.
+     */
+    long[] findFriendIds(long userId);
+
+    /**
+     * Возвращает id общих друзей двух пользователей по возрастанию.
+     */
+    long[] findCommonFriendIds(long userId, long otherId);
+
+    /**
+     * Возвращает id не более {@code limit} друзей друзей пользователя, которые ещё не дружат с ним,
+     * по убыванию числа общих друзей, при равенстве — по возрастанию id.
+     */
+    long[] findRecommendedIds(long userId, int limit);
+
+}
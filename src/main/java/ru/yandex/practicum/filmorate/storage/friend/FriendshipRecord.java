@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+/**
+ * Запись журнала дружбы: пользователи подружились ({@code friends}) или перестали дружить.
+ * Дружба взаимна, поэтому пара записывается один раз. Снимок состоит только из действующих дружб.
+ */
+public record FriendshipRecord(long userId, long friendId, boolean friends) {
+}
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import ru.yandex.practicum.filmorate.storage.persistence.RecordCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Бинарная запись дружбы: userId, friendId и байт-признак 1 — подружились, 0 — дружба удалена.
+ */
+public class FriendshipRecordCodec implements RecordCodec<FriendshipRecord> {
+
+    private static final int SIZE = 2 * Long.BYTES + 1;
+
+    @Override
+    public byte[] encode(FriendshipRecord friendship) {
+        return ByteBuffer.allocate(SIZE)
+                .putLong(friendship.userId())
+                .putLong(friendship.friendId())
+                .put((byte) (friendship.friends() ? 1 : 0))
+                .array();
+    }
+
+    @Override
+    public FriendshipRecord decode(ByteBuffer buffer) {
+        return new FriendshipRecord(buffer.getLong(), buffer.getLong(), buffer.get() != 0);
+    }
+
+}
@@ -0,0 +1,196 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Граф дружбы в виде списков смежности из отсортированных массивов {@code long[]}.
+ * <p>
+ * Массив друзей занимает 8 байт на связь вместо упакованных Long и узлов хеш-таблицы в {@code Set<Long>}.
+ * Массивы неизменяемы и заменяются целиком (copy-on-write), поэтому чтение идёт без блокировок.
+ * Обе стороны одной дружбы меняются под общей блокировкой пары, чтобы конкурентные добавление
+ * и удаление не оставили связь только в одну сторону.
+ * <p>
+ * Рекомендации считаются по запросу и кешируются. Изменение дружбы a–b меняет рекомендации только
+ * у a, b и их друзей, поэтому сбрасываются лишь эти записи кеша.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryFriendStorage implements FriendStorage {
+
+    private static final int STRIPES = 64;
+    private static final int CACHED_RECOMMENDATIONS = 100;
+    private static final long RECOMMENDATIONS_CACHE_SIZE = 10_000;
+    private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingInt(Candidate::mutualFriends)
+            .thenComparing(Comparator.comparingLong(Candidate::userId).reversed());
+
+    private final ConcurrentHashMap<Long, long[]> friends = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final Cache<Long, long[]> recommendations;
+
+    public InMemoryFriendStorage() {
+        this(RECOMMENDATIONS_CACHE_SIZE);
+    }
+
+    public InMemoryFriendStorage(long recommendationsCacheSize) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        recommendations = Caffeine.newBuilder()
+                .maximumSize(recommendationsCacheSize)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public boolean addFriend(long userId, long friendId) {
+        synchronized (lock(userId, friendId)) {
+            if (SortedLongArrays.contains(findFriendIds(userId), friendId)) {
+                return false;
+            }
+            friends.compute(userId, (id, current) -> SortedLongArrays.insert(orEmpty(current), friendId));
+            friends.compute(friendId, (id, current) -> SortedLongArrays.insert(orEmpty(current), userId));
+            invalidateRecommendations(userId, friendId);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeFriend(long userId, long friendId) {
+        synchronized (lock(userId, friendId)) {
+            if (!SortedLongArrays.contains(findFriendIds(userId), friendId)) {
+                return false;
+            }
+            friends.computeIfPresent(userId, (id, current) -> nullIfEmpty(SortedLongArrays.remove(current, friendId)));
+            friends.computeIfPresent(friendId, (id, current) -> nullIfEmpty(SortedLongArrays.remove(current, userId)));
+            invalidateRecommendations(userId, friendId);
+            return true;
+        }
+    }
+
+    @Override
+    public long[] findFriendIds(long userId) {
+        return orEmpty(friends.get(userId));
+    }
+
+    @Override
+    public long[] findCommonFriendIds(long userId, long otherId) {
+        return SortedLongArrays.intersect(findFriendIds(userId), findFriendIds(otherId));
+    }
+
+    @Override
+    public long[] findRecommendedIds(long userId, int limit) {
+        if (limit > CACHED_RECOMMENDATIONS) {
+            return computeRecommendations(userId, limit);
+        }
+        long[] cached = recommendations.get(userId, id -> computeRecommendations(id, CACHED_RECOMMENDATIONS));
+        return cached.length <= limit ? cached : Arrays.copyOf(cached, limit);
+    }
+
+    /**
+     * Заполняет пустой граф при старте: массив каждого пользователя публикуется один раз уже отсортированным.
+     * Загрузка идёт до первого обращения к хранилищу, поэтому кеш рекомендаций пуст и сбрасывать нечего.
+     */
+    void load(FriendGraphBuilder graph) {
+        friends.putAll(graph.build());
+    }
+
+    /**
+     * Все дружбы для снимка {@link FileFriendStorage}, каждая пара один раз. Обход не блокирует изменения
+     * и может увидеть часть из них, журнал после снимка всё равно их повторит.
+     */
+    Iterable<FriendshipRecord> records() {
+        return () -> friends.entrySet().stream()
+                .flatMap(entry -> Arrays.stream(entry.getValue())
+                        .filter(friendId -> entry.getKey() < friendId)
+                        .mapToObj(friendId -> new FriendshipRecord(entry.getKey(), friendId, true)))
+                .iterator();
+    }
+
+    /**
+     * Друзья друзей собираются в один массив и сортируются: одинаковые id оказываются рядом, и число
+     * общих друзей — это длина серии. Большие массивы {@link Arrays#parallelSort} сортирует в общем
+     * fork-join пуле, маленькие — последовательно. Лучшие {@code limit} кандидатов отбираются кучей
+     * ограниченного размера, без сортировки всех кандидатов.
+     */
+    long[] computeRecommendations(long userId, int limit) {
+        long[] userFriends = findFriendIds(userId);
+        long[][] friendsOfFriends = new long[userFriends.length][];
+        int total = 0;
+        for (int i = 0; i < userFriends.length; i++) {
+            friendsOfFriends[i] = findFriendIds(userFriends[i]);
+            total += friendsOfFriends[i].length;
+        }
+        long[] candidates = new long[total];
+        int position = 0;
+        for (long[] ids : friendsOfFriends) {
+            System.arraycopy(ids, 0, candidates, position, ids.length);
+            position += ids.length;
+        }
+        Arrays.parallelSort(candidates);
+
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        int start = 0;
+        while (start < candidates.length) {
+            long candidate = candidates[start];
+            int end = start + 1;
+            while (end < candidates.length && candidates[end] == candidate) {
+                end++;
+            }
+            int mutualFriends = end - start;
+            start = end;
+            if (candidate == userId || SortedLongArrays.contains(userFriends, candidate)) {
+                continue;
+            }
+            // кандидаты идут по возрастанию id, поэтому при равном числе общих друзей прежний кандидат лучше
+            Candidate worst = best.peek();
+            if (best.size() < limit || worst.mutualFriends() < mutualFriends) {
+                best.add(new Candidate(candidate, mutualFriends));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        long[] result = new long[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = best.poll().userId();
+        }
+        return result;
+    }
+
+    private void invalidateRecommendations(long userId, long friendId) {
+        recommendations.invalidate(userId);
+        recommendations.invalidate(friendId);
+        for (long id : findFriendIds(userId)) {
+            recommendations.invalidate(id);
+        }
+        for (long id : findFriendIds(friendId)) {
+            recommendations.invalidate(id);
+        }
+    }
+
+    private Object lock(long userId, long friendId) {
+        long pair = Math.min(userId, friendId) * 31 + Math.max(userId, friendId);
+        return locks[Long.hashCode(pair) & (STRIPES - 1)];
+    }
+
+    // null из computeIfPresent удаляет запись, чтобы не держать пустые массивы пользователей без друзей
+    private static long[] nullIfEmpty(long[] ids) {
+        return ids.length == 0 ? null : ids;
+    }
+
+    private static long[] orEmpty(long[] ids) {
+        return ids == null ? SortedLongArrays.EMPTY : ids;
+    }
+
+    private record Candidate(long userId, int mutualFriends) {
+    }
+
+}
@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCountCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Дружба в H2. Таблица {@code friendships} хранит одну строку на пару, меньший id — в {@code user_id}.
+ * Списки друзей, общие друзья и рекомендации читаются из {@link InMemoryFriendStorage}, который при старте
+ * заполняется из таблицы одной сборкой ({@link FriendGraphBuilder}). Строка в таблице и изменение в памяти делаются под блокировкой пары,
+ * чтобы конкурентные добавление и удаление дружбы применились к памяти в том же порядке, что и к таблице.
+ * Блокировки — {@link ReentrantLock}, а не {@code synchronized}: виртуальный поток, ждущий JDBC,
+ * не закрепляется за несущим.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "jdbc")
+public class JdbcFriendStorage implements FriendStorage {
+
+    private static final int STRIPES = 64;
+    private static final String INSERT = "INSERT INTO friendships (user_id, friend_id) VALUES (?, ?)";
+    private static final String DELETE = "DELETE FROM friendships WHERE user_id = ? AND friend_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryFriendStorage friends = new InMemoryFriendStorage();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public JdbcFriendStorage(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        FriendGraphBuilder graph = new FriendGraphBuilder();
+        RowCountCallbackHandler loader = new RowCountCallbackHandler() {
+            @Override
+            protected void processRow(ResultSet rs, int rowNum) throws SQLException {
+                graph.add(rs.getLong("user_id"), rs.getLong("friend_id"));
+            }
+        };
+        jdbcTemplate.query("SELECT user_id, friend_id FROM friendships", loader);
+        friends.load(graph);
+        log.info("Loaded {} friendships", loader.getRowCount());
+    }
+
+    @Override
+    public boolean addFriend(long userId, long friendId) {
+        ReentrantLock lock = lock(userId, friendId);
+        lock.lock();
+        try {
+            try {
+                jdbcTemplate.update(INSERT, Math.min(userId, friendId), Math.max(userId, friendId));
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+            friends.addFriend(userId, friendId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeFriend(long userId, long friendId) {
+        ReentrantLock lock = lock(userId, friendId);
+        lock.lock();
+        try {
+            if (jdbcTemplate.update(DELETE, Math.min(userId, friendId), Math.max(userId, friendId)) == 0) {
+                return false;
+            }
+            friends.removeFriend(userId, friendId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long[] findFriendIds(long userId) {
+        return friends.findFriendIds(userId);
+    }
+
+    @Override
+    public long[] findCommonFriendIds(long userId, long otherId) {
+        return friends.findCommonFriendIds(userId, otherId);
+    }
+
+    @Override
+    public long[] findRecommendedIds(long userId, int limit) {
+        return friends.findRecommendedIds(userId, limit);
+    }
+
+    private ReentrantLock lock(long userId, long friendId) {
+        long pair = Math.min(userId, friendId) * 31 + Math.max(userId, friendId);
+        return locks[Long.hashCode(pair) & (STRIPES - 1)];
+    }
+
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import java.util.Arrays;
+
+/**
+ * Операции над отсортированными массивами long без повторов. Массивы не изменяются:
+ * каждая операция возвращает новый массив или исходный, если менять нечего.
+ */
+final class SortedLongArrays {
+
+    static final long[] EMPTY = new long[0];
+
+    private SortedLongArrays() {
+    }
+
+    static boolean contains(long[] array, long value) {
+        return Arrays.binarySearch(array, value) >= 0;
+    }
+
+    static long[] insert(long[] array, long value) {
+        int index = Arrays.binarySearch(array, value);
+        if (index >= 0) {
+            return array;
+        }
+        int position = -index - 1;
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        return result;
+    }
+
+    static long[] remove(long[] array, long value) {
+        int index = Arrays.binarySearch(array, value);
+        if (index < 0) {
+            return array;
+        }
+        if (array.length == 1) {
+            return EMPTY;
+        }
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    /**
+     * Пересечение слиянием за O(n + m) без промежуточных коллекций.
+     */
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.persistence.PersistentStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Лайки в памяти, переживающие перезапуск: каждый поставленный и снятый лайк пишется в журнал
+ * в каталоге {@code filmorate.storage.file.dir}, при старте лайки и рейтинг восстанавливаются
+ * из снимка и хвоста журнала. Повторный лайк и снятие отсутствующего лайка в журнал не попадают.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "file")
+public class FileLikeStorage implements LikeStorage {
+
+    private final InMemoryLikeStorage likes = new InMemoryLikeStorage();
+    private final PersistentStore<LikeRecord> store;
+
+    public FileLikeStorage(@Value("${filmorate.storage.file.dir}") Path dataDir,
+                           @Value("${filmorate.storage.file.snapshot-every}") long snapshotEvery) throws IOException {
+        store = new PersistentStore<>(dataDir.resolve("likes"), new LikeRecordCodec(), snapshotEvery, likes::records);
+        store.recover(like -> {
+            if (like.liked()) {
+                likes.addLike(like.filmId(), like.userId());
+            } else {
+                likes.removeLike(like.filmId(), like.userId());
+            }
+        });
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        return store.write(() -> likes.addLike(filmId, userId),
+                added -> added ? List.of(new LikeRecord(filmId, userId, true)) : List.of());
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        return store.write(() -> likes.removeLike(filmId, userId),
+                removed -> removed ? List.of(new LikeRecord(filmId, userId, false)) : List.of());
+    }
+
+    @Override
+    public long countLikes(long filmId) {
+        return likes.countLikes(filmId);
+    }
+
+    @Override
+    public List<Long> findPopular(int count) {
+        return likes.findPopular(count);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Лайки фильмов и рейтинг популярности, который поддерживается при каждом лайке.
+ * <p>
+ * Рейтинг — конкурентный skip list, упорядоченный по (лайки по убыванию, id), поэтому топ-N читается
+ * обходом первых N элементов без сортировки каталога и без блокировок. Лайки одного фильма
+ * сериализуются на одной из {@link #STRIPES} блокировок: изменение набора лайков и перестановка
+ * фильма в рейтинге должны быть атомарны, а фильмы из разных полос друг друга не ждут.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLikeStorage implements LikeStorage {
+
+    private static final int STRIPES = 64;
+    private static final Comparator<Rank> BY_POPULARITY = Comparator.comparingLong(Rank::likes).reversed()
+            .thenComparingLong(Rank::filmId);
+
+    private final ConcurrentHashMap<Long, Set<Long>> likes = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Rank> ranking = new ConcurrentSkipListSet<>(BY_POPULARITY);
+    private final Object[] locks = new Object[STRIPES];
+
+    public InMemoryLikeStorage() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        synchronized (lock(filmId)) {
+            Set<Long> users = likes.computeIfAbsent(filmId, id -> ConcurrentHashMap.newKeySet());
+            if (!users.add(userId)) {
+                return false;
+            }
+            rerank(filmId, users.size() - 1, users.size());
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        synchronized (lock(filmId)) {
+            Set<Long> users = likes.get(filmId);
+            if (users == null || !users.remove(userId)) {
+                return false;
+            }
+            rerank(filmId, users.size() + 1, users.size());
+            return true;
+        }
+    }
+
+    @Override
+    public long countLikes(long filmId) {
+        Set<Long> users = likes.get(filmId);
+        return users == null ? 0 : users.size();
+    }
+
+    @Override
+    public List<Long> findPopular(int count) {
+        List<Long> popular = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+        for (Rank rank : ranking) {
+            if (popular.size() == count) {
+                break;
+            }
+            // во время перестановки фильм может ненадолго оказаться в рейтинге дважды
+            if (seen.add(rank.filmId())) {
+                popular.add(rank.filmId());
+            }
+        }
+        return popular;
+    }
+
+    /**
+     * Все поставленные лайки для снимка {@link FileLikeStorage}. Обход не блокирует изменения
+     * и может увидеть часть из них, журнал после снимка всё равно их повторит.
+     */
+    Iterable<LikeRecord> records() {
+        return () -> likes.entrySet().stream()
+                .flatMap(entry -> entry.getValue().stream()
+                        .map(userId -> new LikeRecord(entry.getKey(), userId, true)))
+                .iterator();
+    }
+
+    /**
+     * Сначала вставляет новую позицию и только потом удаляет старую, чтобы читатель рейтинга
+     * не пропустил фильм между двумя операциями.
+     */
+    private void rerank(long filmId, long oldLikes, long newLikes) {
+        if (newLikes > 0) {
+            ranking.add(new Rank(newLikes, filmId));
+        }
+        if (oldLikes > 0) {
+            ranking.remove(new Rank(oldLikes, filmId));
+        }
+    }
+
+    private Object lock(long filmId) {
+        return locks[Long.hashCode(filmId) & (STRIPES - 1)];
+    }
+
+    private record Rank(long likes, long filmId) {
+    }
+
+}
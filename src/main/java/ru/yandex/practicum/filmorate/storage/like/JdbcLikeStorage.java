@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCountCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Лайки в H2. Таблица {@code likes} хранит сами лайки, а счётчики и рейтинг читаются из
+ * {@link InMemoryLikeStorage}, который при старте заполняется из таблицы: иначе каждый запрос топа
+ * группировал бы все лайки. Строка в таблице и изменение в памяти делаются под блокировкой фильма,
+ * чтобы конкурентные лайк и его снятие применились к памяти в том же порядке, что и к таблице.
+ * Блокировки — {@link ReentrantLock}, а не {@code synchronized}: ожидание JDBC под монитором
+ * закрепило бы виртуальный поток за несущим.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "jdbc")
+public class JdbcLikeStorage implements LikeStorage {
+
+    private static final int STRIPES = 64;
+    private static final String INSERT = "INSERT INTO likes (film_id, user_id) VALUES (?, ?)";
+    private static final String DELETE = "DELETE FROM likes WHERE film_id = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryLikeStorage likes = new InMemoryLikeStorage();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public JdbcLikeStorage(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        RowCountCallbackHandler loader = new RowCountCallbackHandler() {
+            @Override
+            protected void processRow(ResultSet rs, int rowNum) throws SQLException {
+                likes.addLike(rs.getLong("film_id"), rs.getLong("user_id"));
+            }
+        };
+        jdbcTemplate.query("SELECT film_id, user_id FROM likes", loader);
+        log.info("Loaded {} likes", loader.getRowCount());
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        ReentrantLock lock = lock(filmId);
+        lock.lock();
+        try {
+            try {
+                jdbcTemplate.update(INSERT, filmId, userId);
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+            likes.addLike(filmId, userId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        ReentrantLock lock = lock(filmId);
+        lock.lock();
+        try {
+            if (jdbcTemplate.update(DELETE, filmId, userId) == 0) {
+                return false;
+            }
+            likes.removeLike(filmId, userId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long countLikes(long filmId) {
+        return likes.countLikes(filmId);
+    }
+
+    @Override
+    public List<Long> findPopular(int count) {
+        return likes.findPopular(count);
+    }
+
+    private ReentrantLock lock(long filmId) {
+        return locks[Long.hashCode(filmId) & (STRIPES - 1)];
+    }
+
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+/**
+ * Запись журнала лайков: пользователь поставил лайк фильму ({@code liked}) или снял его.
+ * Снимок состоит только из поставленных лайков.
+ */
+public record LikeRecord(long filmId, long userId, boolean liked) {
+}
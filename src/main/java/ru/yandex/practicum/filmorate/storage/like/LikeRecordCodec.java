@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import ru.yandex.practicum.filmorate.storage.persistence.RecordCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Бинарная запись лайка: filmId, userId и байт-признак 1 — лайк поставлен, 0 — снят.
+ */
+public class LikeRecordCodec implements RecordCodec<LikeRecord> {
+
+    private static final int SIZE = 2 * Long.BYTES + 1;
+
+    @Override
+    public byte[] encode(LikeRecord like) {
+        return ByteBuffer.allocate(SIZE)
+                .putLong(like.filmId())
+                .putLong(like.userId())
+                .put((byte) (like.liked() ? 1 : 0))
+                .array();
+    }
+
+    @Override
+    public LikeRecord decode(ByteBuffer buffer) {
+        return new LikeRecord(buffer.getLong(), buffer.getLong(), buffer.get() != 0);
+    }
+
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import java.util.List;
+
+public interface LikeStorage {
+
+    /**
+     * Ставит фильму лайк от пользователя.
+     *
+     * @return {@code false}, если этот пользователь уже ставил лайк фильму
+     */
+    boolean addLike(long filmId, long userId);
+
+    /**
+     * Убирает лайк пользователя с фильма.
+     *
+     * @return {@code false}, если лайка не было
+     */
+    boolean removeLike(long filmId, long userId);
+
+    long countLikes(long filmId);
+
+    /**
+     * Возвращает id не более {@code count} фильмов с наибольшим числом лайков; при равенстве лайков
+     * раньше идёт фильм с меньшим id. Фильмы без лайков не возвращаются.
+     */
+    List<Long> findPopular(int count);
+
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Примитивы компактного бинарного формата записей: строки хранятся как длина и UTF-8 байты
+ * (длина -1 означает null), необязательные числа — как байт-признак и значение. Даты хранятся
+ * как миллисекунды эпохи на полночь UTC.
+ */
+public final class BinaryFormat {
+
+    private static final int NULL_LENGTH = -1;
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Возвращает записанную часть буфера. Необязательные поля занимают меньше места, чем под них выделено.
+     */
+    public static byte[] written(ByteBuffer buffer) {
+        return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static int sizeOf(byte[] utf8) {
+        return Integer.BYTES + (utf8 == null ? 0 : utf8.length);
+    }
+
+    public static void putString(ByteBuffer buffer, byte[] utf8) {
+        if (utf8 == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(utf8.length).put(utf8);
+        }
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void putNullableLong(ByteBuffer buffer, Long value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1).putLong(value);
+        }
+    }
+
+    public static Long getNullableLong(ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : buffer.getLong();
+    }
+
+    public static void putNullableInt(ByteBuffer buffer, Integer value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1).putInt(value);
+        }
+    }
+
+    public static Integer getNullableInt(ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : buffer.getInt();
+    }
+
+    public static void putNullableDate(ByteBuffer buffer, LocalDate value) {
+        putNullableLong(buffer, value == null ? null : value.toEpochDay() * DAY_MILLIS);
+    }
+
+    public static LocalDate getNullableDate(ByteBuffer buffer) {
+        Long millis = getNullableLong(buffer);
+        return millis == null ? null : LocalDate.ofEpochDay(Math.floorDiv(millis, DAY_MILLIS));
+    }
+
+}
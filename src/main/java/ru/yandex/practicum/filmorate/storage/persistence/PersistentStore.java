@@ -0,0 +1,159 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Делает изменения хранилища в памяти долговечными через {@link DurableLog}.
+ * <p>
+ * Изменение в памяти и запись в журнал выполняются под общей блокировкой, чтобы порядок записей
+ * в журнале совпадал с порядком изменений. fsync выполняется уже после снятия блокировки,
+ * так что параллельные записи подтверждаются одним общим fsync. Чтение блокировку не берёт.
+ * После каждых {@code snapshotEvery} записей в фоне снимается снимок и журнал усекается.
+ * <p>
+ * Если запись в журнал или fsync не удались, изменение уже видно в памяти, но не на диске. Откатить его
+ * в общем виде нельзя, поэтому хранилище перестаёт принимать изменения и снимать снимки: иначе следующие
+ * подтверждённые записи или снимок закрепили бы состояние, которого нет в журнале.
+ */
+@Slf4j
+public class PersistentStore<T> implements Closeable {
+
+    private final DurableLog<T> journal;
+    private final long snapshotEvery;
+    private final Supplier<? extends Iterable<T>> snapshotSource;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong appendsSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ExecutorService snapshotExecutor;
+    private final Path dir;
+    private volatile IOException failure;
+
+    public PersistentStore(Path dir, RecordCodec<T> codec, long snapshotEvery,
+                           Supplier<? extends Iterable<T>> snapshotSource) throws IOException {
+        this(new DurableLog<>(dir, codec), dir, snapshotEvery, snapshotSource);
+    }
+
+    PersistentStore(DurableLog<T> journal, Path dir, long snapshotEvery, Supplier<? extends Iterable<T>> snapshotSource) {
+        this.journal = journal;
+        this.dir = dir;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotSource = snapshotSource;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-" + dir.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void recover(Consumer<T> consumer) throws IOException {
+        journal.recover(consumer);
+    }
+
+    /**
+     * Выполняет изменение в памяти и журналирует записи, которые из его результата извлекает {@code changes}.
+     * Возвращает управление, когда записи оказались на диске.
+     */
+    public <R> R write(Supplier<R> mutation, Function<? super R, ? extends Collection<T>> changes) {
+        R result;
+        long seq;
+        int appended;
+        writeLock.lock();
+        try {
+            checkNotFailed();
+            result = mutation.get();
+            Collection<T> records = changes.apply(result);
+            appended = records.size();
+            seq = journal.append(records);
+        } catch (IOException e) {
+            throw fail(e);
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            journal.sync(seq);
+        } catch (IOException e) {
+            throw fail(e);
+        }
+        if (appendsSinceSnapshot.addAndGet(appended) >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+            snapshotExecutor.execute(this::snapshotInBackground);
+        }
+        return result;
+    }
+
+    public void snapshot() throws IOException {
+        long rolled;
+        writeLock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Store in " + dir + " is read-only after a journal failure", failure);
+            }
+            rolled = journal.roll();
+            appendsSinceSnapshot.set(0);
+        } finally {
+            writeLock.unlock();
+        }
+        journal.writeSnapshot(rolled, snapshotSource.get());
+    }
+
+    /**
+     * Снимает финальный снимок, чтобы следующий старт не читал журнал, и закрывает файлы.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotExecutor.shutdown();
+        try {
+            if (!snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Background snapshot did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null) {
+                snapshot();
+            }
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException(
+                    new IOException("Store in " + dir + " is read-only after a journal failure", failure));
+        }
+    }
+
+    private UncheckedIOException fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+            log.error("Journal write failed, store in {} stops accepting changes", dir, e);
+        }
+        return new UncheckedIOException(e);
+    }
+
+    private void snapshotInBackground() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write snapshot", e);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+}
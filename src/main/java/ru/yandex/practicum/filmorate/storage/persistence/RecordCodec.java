@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Сериализация записей журнала и снимков.
+ */
+public interface RecordCodec<T> {
+
+    byte[] encode(T record);
+
+    /**
+     * Читает запись из {@code buffer} между position и limit. Буфер может быть отображён в память,
+     * поэтому ссылки на него после возврата хранить нельзя.
+     */
+    T decode(ByteBuffer buffer);
+
+}
@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.persistence.PersistentStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Хранилище пользователей в памяти, переживающее перезапуск: изменения пишутся в журнал в каталоге
+ * {@code filmorate.storage.file.dir}, при старте состояние восстанавливается из снимка и хвоста журнала.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "file")
+public class FileUserStorage implements UserStorage {
+
+    private final InMemoryUserStorage users;
+    private final PersistentStore<User> store;
+
+    public FileUserStorage(@Value("${filmorate.storage.file.dir}") Path dataDir,
+                           @Value("${filmorate.storage.file.snapshot-every}") long snapshotEvery) throws IOException {
+        SortedMap<Long, User> recovered = new TreeMap<>();
+        store = new PersistentStore<>(dataDir.resolve("users"), new UserRecordCodec(), snapshotEvery, this::findAll);
+        store.recover(user -> recovered.put(user.getId(), user));
+        users = new InMemoryUserStorage(recovered);
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return users.findAll();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return users.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<User> findById(long id) {
+        return users.findById(id);
+    }
+
+    @Override
+    public long count() {
+        return users.count();
+    }
+
+    @Override
+    public Optional<User> findByLogin(String login) {
+        return users.findByLogin(login);
+    }
+
+    @Override
+    public User add(User user) {
+        return store.write(() -> users.add(user), List::of);
+    }
+
+    @Override
+    public List<User> addAll(List<User> newUsers) {
+        return store.write(() -> users.addAll(newUsers), added -> added);
+    }
+
+    @Override
+    public List<User> replaceAll(List<User> updatedUsers) {
+        return store.write(() -> users.replaceAll(updatedUsers), rejected -> {
+            Set<User> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+            skipped.addAll(rejected);
+            return updatedUsers.stream()
+                    .filter(user -> !skipped.contains(user))
+                    .toList();
+        });
+    }
+
+    @Override
+    public User update(User user) {
+        return store.write(() -> users.update(user), List::of);
+    }
+
+    @Override
+    public User update(User user, long expectedVersion) {
+        return store.write(() -> users.update(user, expectedVersion), List::of);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+}
@@ -0,0 +1,265 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище пользователей в памяти.
+ * <p>
+ * Уникальность email и login держат хеш-индексы ключ → пользователь. Ключ занимается через
+ * {@code putIfAbsent} до того, как пользователь попадает в основную карту, поэтому из двух одновременных
+ * регистраций с одним email проходит ровно одна, а проверка стоит O(1). Изменения одного пользователя
+ * сериализуются на одной из {@link #STRIPES} блокировок, чтобы освобождение старых ключей не гонялось
+ * с параллельным изменением той же записи.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserStorage implements UserStorage {
+
+    private static final int STRIPES = 64;
+    private static final long ANY_VERSION = -1;
+
+    private final ConcurrentNavigableMap<Long, User> users;
+    private final ConcurrentMap<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, User> usersByLogin = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicLong userCurrentId;
+
+    public InMemoryUserStorage() {
+        this(Collections.emptySortedMap());
+    }
+
+    /**
+     * Строит хранилище из готового упорядоченного по id набора пользователей за линейное время,
+     * без поштучных вставок. Используется при восстановлении с диска.
+     */
+    public InMemoryUserStorage(SortedMap<Long, User> initial) {
+        users = new ConcurrentSkipListMap<>(initial);
+        userCurrentId = new AtomicLong(initial.isEmpty() ? 1L : initial.lastKey() + 1);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        for (User user : initial.values()) {
+            // данные, записанные до появления ограничения, могут содержать дубликаты: индекс получает первый
+            String email = emailKey(user);
+            if (email != null && usersByEmail.putIfAbsent(email, user) != null) {
+                log.warn("Recovered user {} has duplicate email {}", user.getId(), email);
+            }
+            if (user.getLogin() != null && usersByLogin.putIfAbsent(user.getLogin(), user) != null) {
+                log.warn("Recovered user {} has duplicate login {}", user.getId(), user.getLogin());
+            }
+        }
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return new ArrayList<>(users.values());
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        List<User> page = new ArrayList<>(limit);
+        for (User user : users.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(user);
+        }
+        return page;
+    }
+
+    @Override
+    public Optional<User> findById(long id) {
+        return Optional.ofNullable(users.get(id));
+    }
+
+    @Override
+    public long count() {
+        // size() у ConcurrentSkipListMap обходит карту, но вызывается только при снятии метрик
+        return users.size();
+    }
+
+    /**
+     * Индекс может ссылаться на пользователя, который ещё сохраняется или уже заменён новой версией,
+     * поэтому ответом служит текущая запись из основной карты, если её login совпадает.
+     */
+    @Override
+    public Optional<User> findByLogin(String login) {
+        User indexed = usersByLogin.get(login);
+        Long id = indexed == null ? null : indexed.getId();
+        User current = id == null ? null : users.get(id);
+        return current != null && login.equals(current.getLogin()) ? Optional.of(current) : Optional.empty();
+    }
+
+    @Override
+    public User add(User user) {
+        Long requestedId = user.getId();
+        user.setVersion(1);
+        reserveKeys(user, null);
+        if (requestedId != null && requestedId >= userCurrentId.get() && users.putIfAbsent(requestedId, user) == null) {
+            userCurrentId.accumulateAndGet(requestedId + 1, Math::max);
+            return user;
+        }
+        long id = nextFreeId(user);
+        if (requestedId == null) {
+            log.debug("User id is empty. Set new id: {}", id);
+        } else {
+            log.warn("User with id {} already exists. Set new id: {}", requestedId, id);
+        }
+        return user;
+    }
+
+    @Override
+    public List<User> addAll(List<User> newUsers) {
+        List<User> accepted = new ArrayList<>(newUsers.size());
+        for (User user : newUsers) {
+            user.setId(null);
+            try {
+                reserveKeys(user, null);
+                accepted.add(user);
+            } catch (UserAlreadyExistsException e) {
+                log.warn(e.getMessage());
+            }
+        }
+        long id = userCurrentId.getAndAdd(accepted.size());
+        for (User user : accepted) {
+            user.setId(id++);
+            user.setVersion(1);
+            if (users.putIfAbsent(user.getId(), user) != null) {
+                nextFreeId(user);
+            }
+        }
+        return accepted;
+    }
+
+    @Override
+    public List<User> replaceAll(List<User> updatedUsers) {
+        List<User> rejected = new ArrayList<>();
+        for (User user : updatedUsers) {
+            try {
+                if (!replace(user)) {
+                    rejected.add(user);
+                }
+            } catch (UserAlreadyExistsException e) {
+                log.warn(e.getMessage());
+                rejected.add(user);
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public User update(User user) {
+        return update(user, ANY_VERSION);
+    }
+
+    @Override
+    public User update(User user, long expectedVersion) {
+        if (!replace(user, expectedVersion)) {
+            throw new NoUserFoundException("User with id " + user.getId() + " not found");
+        }
+        return user;
+    }
+
+    private boolean replace(User user) {
+        return replace(user, ANY_VERSION);
+    }
+
+    /**
+     * Версия сверяется под той же блокировкой полосы, что и замена, поэтому из двух правок
+     * одной версии проходит ровно одна.
+     *
+     * @param expectedVersion ожидаемая текущая версия или {@link #ANY_VERSION}
+     * @return false, если пользователя с таким id нет
+     */
+    private boolean replace(User user, long expectedVersion) {
+        long id = user.getId();
+        synchronized (locks[Long.hashCode(id) & (STRIPES - 1)]) {
+            User current = users.get(id);
+            if (current == null) {
+                return false;
+            }
+            if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+                throw new VersionConflictException("User with id " + id + " has version " + current.getVersion()
+                        + ", expected " + expectedVersion);
+            }
+            reserveKeys(user, current);
+            user.setVersion(current.getVersion() + 1);
+            users.put(id, user);
+            release(usersByEmail, emailKey(current), emailKey(user), current);
+            release(usersByLogin, current.getLogin(), user.getLogin(), current);
+            return true;
+        }
+    }
+
+    /**
+     * Занимает email и login пользователя. Ключи, которые уже принадлежат его прежней версии {@code current},
+     * переходят к новой версии. Если второй ключ занят, первый возвращается в прежнее состояние.
+     */
+    private void reserveKeys(User user, User current) {
+        String email = emailKey(user);
+        reserve(usersByEmail, "email", email, user, current);
+        try {
+            reserve(usersByLogin, "login", user.getLogin(), user, current);
+        } catch (UserAlreadyExistsException e) {
+            if (current != null && email != null && email.equals(emailKey(current))) {
+                usersByEmail.replace(email, user, current);
+            } else if (email != null) {
+                usersByEmail.remove(email, user);
+            }
+            throw e;
+        }
+    }
+
+    private static void reserve(ConcurrentMap<String, User> index, String field, String key, User user, User current) {
+        if (key == null) {
+            return;
+        }
+        User holder = index.putIfAbsent(key, user);
+        if (holder != null && (holder != current || !index.replace(key, current, user))) {
+            throw new UserAlreadyExistsException("User with " + field + " " + key + " already exists");
+        }
+    }
+
+    /**
+     * Освобождает ключ прежней версии пользователя, если новая версия его не сохранила.
+     */
+    private static void release(ConcurrentMap<String, User> index, String oldKey, String newKey, User current) {
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            index.remove(oldKey, current);
+        }
+    }
+
+    private static String emailKey(User user) {
+        return user.getEmail() == null ? null : user.getEmail().toLowerCase(Locale.ROOT);
+    }
+
+    private long nextFreeId(User user) {
+        long id;
+        do {
+            id = userCurrentId.getAndIncrement();
+            user.setId(id);
+        } while (users.putIfAbsent(id, user) != null);
+        return id;
+    }
+
+}
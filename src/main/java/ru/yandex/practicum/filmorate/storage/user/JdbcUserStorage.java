@@ -0,0 +1,371 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Хранилище пользователей в H2. Уникальность email и login обеспечивают ограничения
+ * {@code users_email_uq} и {@code users_login_uq}: нарушение отличается от конфликта первичного ключа
+ * по имени ограничения в сообщении драйвера.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "jdbc")
+public class JdbcUserStorage implements UserStorage {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String SELECT = "SELECT id, email, login, name, birthday, version FROM users";
+    private static final String INSERT = "INSERT INTO users (email, login, name, birthday, id) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE users SET email = ?, login = ?, name = ?, birthday = ?, version = version + 1 WHERE id = ?";
+    private static final String UPDATE_IF_VERSION = UPDATE + " AND version = ?";
+    private static final String NEXT_IDS = "SELECT NEXT VALUE FOR user_id_seq FROM SYSTEM_RANGE(1, ?)";
+    private static final String SELECT_VERSIONS = "SELECT id, version FROM users";
+    private static final String MAX_ID = "SELECT COALESCE(MAX(id), 0) FROM users";
+
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setEmail(rs.getString("email"));
+        user.setLogin(rs.getString("login"));
+        user.setName(rs.getString("name"));
+        user.setBirthday(rs.getObject("birthday", LocalDate.class));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    };
+
+    private static final String EMAIL_CONSTRAINT = "USERS_EMAIL_UQ";
+    private static final String LOGIN_CONSTRAINT = "USERS_LOGIN_UQ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final TransactionTemplate rowTransaction;
+
+    public JdbcUserStorage(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // вложенная транзакция — точка сохранения, если вызов уже идёт внутри транзакции
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.rowTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Collection<User> findAll() {
+        return jdbcTemplate.query(SELECT + " ORDER BY id", USER_ROW_MAPPER);
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT + " WHERE id > ? ORDER BY id LIMIT ?", USER_ROW_MAPPER, afterId, limit);
+    }
+
+    @Override
+    public Optional<User> findById(long id) {
+        return jdbcTemplate.query(SELECT + " WHERE id = ?", USER_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+    }
+
+    @Override
+    public Optional<User> findByLogin(String login) {
+        return jdbcTemplate.query(SELECT + " WHERE login = ?", USER_ROW_MAPPER, login).stream().findFirst();
+    }
+
+    @Override
+    public User add(User user) {
+        Long requestedId = user.getId();
+        user.setVersion(1);
+        if (requestedId != null && requestedId > jdbcTemplate.queryForObject(MAX_ID, Long.class) && tryInsert(user)) {
+            return user;
+        }
+        long id = nextFreeId(user);
+        if (requestedId == null) {
+            log.debug("User id is empty. Set new id: {}", id);
+        } else {
+            log.warn("User with id {} already exists. Set new id: {}", requestedId, id);
+        }
+        return user;
+    }
+
+    @Override
+    public List<User> addAll(List<User> newUsers) {
+        if (newUsers.isEmpty()) {
+            return newUsers;
+        }
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS, Long.class, newUsers.size());
+        for (int i = 0; i < newUsers.size(); i++) {
+            newUsers.get(i).setId(ids.get(i));
+            newUsers.get(i).setVersion(1);
+        }
+        return insertAll(newUsers);
+    }
+
+    /**
+     * Каждая пачка идёт в своей транзакции, чтобы при нарушении уникальности в одной строке драйвер
+     * вернул счётчики всей пачки: строки с {@link Statement#EXECUTE_FAILED} или 0 не сохранены.
+     * Если по счётчикам нельзя понять, какие строки обновлены, пачка откатывается и строки обновляются
+     * по одной: иначе уже обновлённый пользователь был бы вставлен заново и столкнулся бы сам с собой.
+     */
+    @Override
+    public List<User> replaceAll(List<User> updatedUsers) {
+        List<User> rejected = new ArrayList<>();
+        List<User> updated = new ArrayList<>(updatedUsers.size());
+        for (int from = 0; from < updatedUsers.size(); from += BATCH_SIZE) {
+            List<User> batch = updatedUsers.subList(from, Math.min(updatedUsers.size(), from + BATCH_SIZE));
+            int[] counts = batchTransaction.execute(status -> {
+                try {
+                    return jdbcTemplate.batchUpdate(UPDATE, batch, batch.size(), JdbcUserStorage::setParameters)[0];
+                } catch (DuplicateKeyException e) {
+                    log.warn("User batch update violates email or login uniqueness: {}",
+                            e.getMostSpecificCause().getMessage());
+                    int[] known = knownUpdateCounts(e, batch.size());
+                    if (known != null) {
+                        return known;
+                    }
+                    log.warn("User batch update failed without per-row results, rolling back and updating one by one");
+                    status.setRollbackOnly();
+                    return null;
+                }
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                User user = batch.get(i);
+                boolean saved = counts == null
+                        ? tryUpdate(user)
+                        : counts[i] != 0 && counts[i] != Statement.EXECUTE_FAILED;
+                if (saved) {
+                    updated.add(user);
+                } else {
+                    rejected.add(user);
+                }
+            }
+        }
+        loadVersions(updated);
+        return rejected;
+    }
+
+    /**
+     * @return false, если пользователя нет или заняты email или login
+     */
+    private boolean tryUpdate(User user) {
+        try {
+            return jdbcTemplate.update(UPDATE, ps -> setParameters(ps, user)) > 0;
+        } catch (DuplicateKeyException e) {
+            log.warn(alreadyExists(e, user).getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * SELECT ... FROM FINAL TABLE (UPDATE ...) в H2 при нарушении уникальности теряет строку, а версия,
+     * дочитанная после UPDATE, может оказаться уже чужой правкой. Поэтому строка сначала блокируется
+     * через SELECT ... FOR UPDATE, и в той же транзакции UPDATE увеличивает версию: новая версия —
+     * прочитанная + 1, а параллельная правка ждёт конца транзакции, а не повторяет попытки.
+     */
+    @Override
+    public User update(User user) {
+        long current = rowTransaction.execute(status -> {
+            long locked = currentVersion(user.getId(), " FOR UPDATE");
+            try {
+                jdbcTemplate.update(UPDATE, ps -> setParameters(ps, user));
+            } catch (DuplicateKeyException e) {
+                throw alreadyExists(e, user);
+            }
+            return locked;
+        });
+        user.setVersion(current + 1);
+        return user;
+    }
+
+    /**
+     * Версия сверяется в условии самого UPDATE, поэтому новая версия известна без дочитывания:
+     * строка обновлена только если была ровно {@code expectedVersion}.
+     */
+    @Override
+    public User update(User user, long expectedVersion) {
+        if (!updateIfVersion(user, expectedVersion)) {
+            throw new VersionConflictException("User with id " + user.getId() + " has version "
+                    + currentVersion(user.getId()) + ", expected " + expectedVersion);
+        }
+        user.setVersion(expectedVersion + 1);
+        return user;
+    }
+
+    private boolean updateIfVersion(User user, long expectedVersion) {
+        try {
+            return jdbcTemplate.update(UPDATE_IF_VERSION, ps -> {
+                setParameters(ps, user);
+                ps.setLong(6, expectedVersion);
+            }) > 0;
+        } catch (DuplicateKeyException e) {
+            throw alreadyExists(e, user);
+        }
+    }
+
+    private long currentVersion(long id) {
+        return currentVersion(id, "");
+    }
+
+    private long currentVersion(long id, String lockClause) {
+        List<Long> versions = jdbcTemplate.query(SELECT_VERSIONS + " WHERE id = ?" + lockClause,
+                (rs, rowNum) -> rs.getLong("version"), id);
+        if (versions.isEmpty()) {
+            throw new NoUserFoundException("User with id " + id + " not found");
+        }
+        return versions.get(0);
+    }
+
+    /**
+     * Пакетный UPDATE не возвращает новые версии строк, поэтому они дочитываются одним запросом на пачку.
+     */
+    private void loadVersions(List<User> users) {
+        for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+            List<User> batch = users.subList(from, Math.min(users.size(), from + BATCH_SIZE));
+            Map<Long, User> byId = new HashMap<>(batch.size() * 2);
+            batch.forEach(user -> byId.put(user.getId(), user));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(SELECT_VERSIONS + " WHERE id IN (" + placeholders + ")",
+                    (RowCallbackHandler) rs -> byId.get(rs.getLong("id")).setVersion(rs.getLong("version")),
+                    byId.keySet().toArray());
+        }
+    }
+
+    /**
+     * Каждая пачка идёт в своей транзакции. По одному досохраняются только строки
+     * с {@link Statement#EXECUTE_FAILED}, чтобы отличить занятый id от занятых email и login.
+     * Если по счётчикам драйвера нельзя понять, какие строки вставлены, пачка откатывается целиком:
+     * иначе уже сохранённый пользователь при повторной вставке столкнулся бы сам с собой и попал в конфликты.
+     *
+     * @return сохранённые пользователи
+     */
+    private List<User> insertAll(List<User> users) {
+        List<User> inserted = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+            List<User> batch = users.subList(from, Math.min(users.size(), from + BATCH_SIZE));
+            int[] counts = batchTransaction.execute(status -> {
+                try {
+                    jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), JdbcUserStorage::setParameters);
+                    return null;
+                } catch (DuplicateKeyException e) {
+                    int[] known = knownUpdateCounts(e, batch.size());
+                    if (known != null) {
+                        log.warn("User batch insert failed for some rows, retrying them one by one");
+                        return known;
+                    }
+                    log.warn("User batch insert failed without per-row results, rolling back and inserting one by one");
+                    status.setRollbackOnly();
+                    int[] failed = new int[batch.size()];
+                    Arrays.fill(failed, Statement.EXECUTE_FAILED);
+                    return failed;
+                }
+            });
+            if (counts == null) {
+                inserted.addAll(batch);
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                User user = batch.get(i);
+                if (counts[i] != Statement.EXECUTE_FAILED && counts[i] != 0) {
+                    inserted.add(user);
+                    continue;
+                }
+                try {
+                    if (!tryInsert(user)) {
+                        nextFreeId(user);
+                    }
+                    inserted.add(user);
+                } catch (UserAlreadyExistsException conflict) {
+                    log.warn(conflict.getMessage());
+                    user.setId(null);
+                }
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * @return false, если занят id
+     * @throws UserAlreadyExistsException если заняты email или login
+     */
+    private boolean tryInsert(User user) {
+        try {
+            jdbcTemplate.update(INSERT, ps -> setParameters(ps, user));
+            return true;
+        } catch (DuplicateKeyException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message.contains(EMAIL_CONSTRAINT) || message.contains(LOGIN_CONSTRAINT)) {
+                throw alreadyExists(e, user);
+            }
+            return false;
+        }
+    }
+
+    private static UserAlreadyExistsException alreadyExists(DuplicateKeyException e, User user) {
+        return e.getMostSpecificCause().getMessage().contains(EMAIL_CONSTRAINT)
+                ? new UserAlreadyExistsException("User with email " + user.getEmail().toLowerCase(Locale.ROOT)
+                        + " already exists")
+                : new UserAlreadyExistsException("User with login " + user.getLogin() + " already exists");
+    }
+
+    private static int[] updateCounts(DuplicateKeyException e) {
+        return e.getCause() instanceof BatchUpdateException batchException
+                ? batchException.getUpdateCounts()
+                : new int[0];
+    }
+
+    /**
+     * @return счётчики пачки, если по ним известен исход каждой строки, иначе null
+     */
+    private static int[] knownUpdateCounts(DuplicateKeyException e, int batchSize) {
+        int[] counts = updateCounts(e);
+        if (counts == null || counts.length != batchSize
+                || Arrays.stream(counts).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+            return null;
+        }
+        return counts;
+    }
+
+    private long nextFreeId(User user) {
+        do {
+            user.setId(jdbcTemplate.queryForObject(NEXT_IDS, Long.class, 1));
+        } while (!tryInsert(user));
+        return user.getId();
+    }
+
+    private static void setParameters(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getEmail());
+        ps.setString(2, user.getLogin());
+        ps.setString(3, user.getName());
+        ps.setObject(4, user.getBirthday());
+        ps.setLong(5, user.getId());
+    }
+
+}
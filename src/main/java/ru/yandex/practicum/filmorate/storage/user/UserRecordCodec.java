@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.persistence.RecordCodec;
+
+import java.nio.ByteBuffer;
+
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.getNullableDate;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.getString;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.putNullableDate;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.putString;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.sizeOf;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.utf8;
+import static ru.yandex.practicum.filmorate.storage.persistence.BinaryFormat.written;
+
+/**
+ * Бинарная запись пользователя: id, version, email, login, name, birthday (миллисекунды эпохи на полночь UTC).
+ */
+public class UserRecordCodec implements RecordCodec<User> {
+
+    private static final int FIXED_SIZE = 2 * Long.BYTES + (1 + Long.BYTES);
+
+    @Override
+    public byte[] encode(User user) {
+        byte[] email = utf8(user.getEmail());
+        byte[] login = utf8(user.getLogin());
+        byte[] name = utf8(user.getName());
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + sizeOf(email) + sizeOf(login) + sizeOf(name));
+        buffer.putLong(user.getId());
+        buffer.putLong(user.getVersion());
+        putString(buffer, email);
+        putString(buffer, login);
+        putString(buffer, name);
+        putNullableDate(buffer, user.getBirthday());
+        return written(buffer);
+    }
+
+    @Override
+    public User decode(ByteBuffer buffer) {
+        User user = new User();
+        user.setId(buffer.getLong());
+        user.setVersion(buffer.getLong());
+        user.setEmail(getString(buffer));
+        user.setLogin(getString(buffer));
+        user.setName(getString(buffer));
+        user.setBirthday(getNullableDate(buffer));
+        return user;
+    }
+
+}
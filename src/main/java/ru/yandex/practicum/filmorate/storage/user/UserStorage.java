@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserStorage {
+
+    Collection<User> findAll();
+
+    /**
+     * Возвращает не более {@code limit} пользователей с id строго больше {@code afterId}, упорядоченных по id.
+     */
+    List<User> findPage(long afterId, int limit);
+
+    Optional<User> findById(long id);
+
+    /**
+     * Число пользователей в хранилище. Вызывается при снятии метрик, а не на пути запроса.
+     */
+    long count();
+
+    /**
+     * Ищет пользователя по логину с учётом регистра.
+     */
+    Optional<User> findByLogin(String login);
+
+    /**
+     * Сохраняет пользователя. Если id не задан, уже занят или меньше выданных ранее, выдаётся новый id.
+     * Email (без учёта регистра) и login должны быть уникальны.
+     *
+     * @throws ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException если email или login заняты
+     */
+    User add(User user);
+
+    /**
+     * Сохраняет пачку пользователей одной операцией. Id из запроса игнорируются: под пачку
+     * сразу резервируется непрерывный блок новых id.
+     *
+     * @return сохранённые пользователи; пользователи с занятым email или login пропускаются
+     */
+    List<User> addAll(List<User> newUsers);
+
+    /**
+     * Заменяет пачку существующих пользователей.
+     *
+     * @return пользователи из пачки, которые не сохранены: их нет в хранилище, или их email или login
+     *     заняты другими пользователями
+     */
+    List<User> replaceAll(List<User> updatedUsers);
+
+    /**
+     * Заменяет существующего пользователя.
+     *
+     * @throws ru.yandex.practicum.filmorate.exceptions.NoUserFoundException если пользователя с таким id нет
+     * @throws ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException если новые email или login
+     *     заняты другими пользователями
+     */
+    User update(User user);
+
+    /**
+     * Заменяет пользователя, только если его текущая версия равна {@code expectedVersion}: проверка
+     * и замена выполняются атомарно.
+     *
+     * @throws ru.yandex.practicum.filmorate.exceptions.NoUserFoundException если пользователя с таким id нет
+     * @throws ru.yandex.practicum.filmorate.exceptions.VersionConflictException если версия уже другая
+     * @throws ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException если новые email или login
+     *     заняты другими пользователями
+     */
+    User update(User user, long expectedVersion);
+
+}
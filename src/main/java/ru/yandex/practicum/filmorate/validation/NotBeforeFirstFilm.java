@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Дата выхода фильма не раньше первого киносеанса, {@link NotBeforeFirstFilmValidator#FIRST_FILM_DATE}.
+ * {@code null} считается допустимым значением, его проверяет {@code @NotNull}.
+ */
+@Documented
+@Constraint(validatedBy = NotBeforeFirstFilmValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NotBeforeFirstFilm {
+
+    String message() default "Фильм выпущен не ранее 28.12.1895";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+}
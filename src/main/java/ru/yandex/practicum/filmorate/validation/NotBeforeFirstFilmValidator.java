@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.time.LocalDate;
+
+/**
+ * Сравнивает дату с заранее созданной константой: проверка не выделяет память и не обращается
+ * к часовому поясу и локали.
+ */
+public class NotBeforeFirstFilmValidator implements ConstraintValidator<NotBeforeFirstFilm, LocalDate> {
+
+    public static final LocalDate FIRST_FILM_DATE = LocalDate.of(1895, 12, 28);
+
+    @Override
+    public boolean isValid(LocalDate value, ConstraintValidatorContext context) {
+        return value == null || !value.isBefore(FIRST_FILM_DATE);
+    }
+
+}
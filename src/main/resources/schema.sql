@@ -0,0 +1,38 @@
+CREATE SEQUENCE IF NOT EXISTS film_id_seq;
+CREATE SEQUENCE IF NOT EXISTS user_id_seq;
+
+CREATE TABLE IF NOT EXISTS films (
+    id           BIGINT PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    description  VARCHAR(200),
+    release_date DATE         NOT NULL,
+    duration     INT          NOT NULL,
+    version      BIGINT       DEFAULT 1 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL,
+    login    VARCHAR(255) NOT NULL,
+    name     VARCHAR(255),
+    birthday DATE         NOT NULL,
+    version  BIGINT       DEFAULT 1 NOT NULL,
+    -- email уникален без учёта регистра, login — с учётом
+    email_key VARCHAR(255) GENERATED ALWAYS AS (LOWER(email)),
+    CONSTRAINT users_email_uq UNIQUE (email_key),
+    CONSTRAINT users_login_uq UNIQUE (login)
+);
+
+CREATE TABLE IF NOT EXISTS likes (
+    film_id BIGINT NOT NULL REFERENCES films (id),
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    PRIMARY KEY (film_id, user_id)
+);
+
+-- дружба взаимна, поэтому пара хранится одной строкой: меньший id — в user_id
+CREATE TABLE IF NOT EXISTS friendships (
+    user_id   BIGINT NOT NULL REFERENCES users (id),
+    friend_id BIGINT NOT NULL REFERENCES users (id),
+    PRIMARY KEY (user_id, friend_id),
+    CHECK (user_id < friend_id)
+);
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class FilmorateApplicationMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void testPrometheus_ShouldExposeRequestHistogramsErrorsStorageAndJvmMetrics() throws Exception {
+		mockMvc.perform(post("/films")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Film\",\"releaseDate\":\"2000-01-01\",\"duration\":100}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/films/{id}", 100_000))
+				.andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket{application=\"filmorate\","
+						+ "error=\"none\",exception=\"none\",method=\"POST\",outcome=\"SUCCESS\",status=\"200\",uri=\"/films\"")))
+				.andExpect(content().string(containsString(
+						"filmorate_errors_total{application=\"filmorate\",handler=\"handleNoFilmFoundException\",status=\"404\",} 1.0")))
+				.andExpect(content().string(containsString(
+						"filmorate_storage_size_records{application=\"filmorate\",entity=\"films\",} 1.0")))
+				.andExpect(content().string(containsString("jvm_gc_memory_allocated_bytes_total")))
+				.andExpect(content().string(containsString("jvm_memory_used_bytes")));
+	}
+
+	@Test
+	void testReadiness_ShouldIncludeFilmIndexes() throws Exception {
+		mockMvc.perform(get("/actuator/health/readiness"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("UP"))
+				.andExpect(jsonPath("$.components.filmIndex.status").value("UP"));
+	}
+
+}
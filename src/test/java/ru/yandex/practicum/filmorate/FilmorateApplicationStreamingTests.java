@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "filmorate.streaming.virtual-threads=true")
+class FilmorateApplicationStreamingTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@SpyBean
+	private FilmStorage filmStorage;
+
+	@Test
+	void testNdjsonStream_whenVirtualThreadsEnabled_ShouldReadPagesOnVirtualThread() {
+		Film film = new Film();
+		film.setName("Film");
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(100);
+		filmStorage.add(film);
+		List<Thread> pageReaders = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			pageReaders.add(Thread.currentThread());
+			return invocation.callRealMethod();
+		}).when(filmStorage).findPage(anyLong(), anyInt());
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+		ResponseEntity<String> response = restTemplate.exchange("/films", HttpMethod.GET,
+				new HttpEntity<>(headers), String.class);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(response.getBody().contains("\"name\":\"Film\""));
+		assertFalse(pageReaders.isEmpty());
+		assertTrue(pageReaders.stream().allMatch(Thread::isVirtual));
+	}
+
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.threads.virtual.enabled=true")
+class FilmorateApplicationVirtualThreadsTests {
+
+	@Autowired
+	private ServletWebServerApplicationContext context;
+
+	@Test
+	void testTomcat_whenVirtualThreadsEnabled_ShouldUseVirtualThreadExecutor() {
+		TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+
+		assertInstanceOf(VirtualThreadExecutor.class,
+				server.getTomcat().getConnector().getProtocolHandler().getExecutor());
+	}
+
+}
@@ -0,0 +1,131 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FileFilmStorage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Время от запуска всего приложения до ответа на первый запрос при файловом хранилище с {@link #films} фильмами.
+ * <p>
+ * {@code firstRequest} — до ответа на {@code GET /films/{id}}, которому индексы не нужны: прежде в это время
+ * входило построение индексов поиска и фильтрации по всему каталогу. {@code firstSearch} — до ответа
+ * на {@code GET /films/search}, который ждёт фонового построения индекса поиска. Остановка приложения
+ * (с финальным снимком) в измерение не входит.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=ApplicationStartupBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ApplicationStartupBenchmark {
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    @Param({"100000", "300000"})
+    private int films;
+
+    private Path dir;
+    private HttpClient client;
+    private ConfigurableApplicationContext app;
+
+    @Setup(Level.Trial)
+    public void fill() throws IOException {
+        dir = Files.createTempDirectory("filmorate-bench");
+        FileFilmStorage storage = new FileFilmStorage(dir, Long.MAX_VALUE);
+        for (int added = 0; added < films; added += CHUNK_SIZE) {
+            List<Film> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = added; i < Math.min(films, added + CHUNK_SIZE); i++) {
+                Film film = new Film();
+                film.setName("Film " + i);
+                film.setDescription("Description of film number " + i);
+                film.setReleaseDate(LocalDate.ofEpochDay(i % 20_000));
+                film.setDuration(90 + i % 60);
+                chunk.add(film);
+            }
+            storage.addAll(chunk);
+        }
+        storage.close();
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (app != null) {
+            app.close();
+            app = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        client.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public String firstRequest() throws Exception {
+        return startAndGet("/films/" + films);
+    }
+
+    @Benchmark
+    public String firstSearch() throws Exception {
+        return startAndGet("/films/search?query=number");
+    }
+
+    private String startAndGet(String path) throws Exception {
+        // аргументы командной строки, а не properties(): значения по умолчанию перекрывает application.properties
+        app = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--filmorate.storage.type=file",
+                        "--filmorate.storage.file.dir=" + dir,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + path);
+        }
+        return response.body();
+    }
+
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+
+/**
+ * Типичные записи для JMH-бенчмарков: поля заполнены так, как их присылает клиент.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Хранилища пишут в лог каждое добавление без id, а бенчмарки хранилищ измеряют само хранилище.
+     */
+    static void quietStorageLogs() {
+        ((Logger) LoggerFactory.getLogger("ru.yandex.practicum.filmorate")).setLevel(Level.WARN);
+    }
+
+    static FilmDto filmDto() {
+        FilmDto dto = new FilmDto();
+        dto.setName("The Arrival of a Train");
+        dto.setDescription("Короткометражный документальный фильм братьев Люмьер о прибытии поезда на вокзал Ла-Сьота");
+        dto.setReleaseDate(LocalDate.of(1896, 1, 25));
+        dto.setDuration(1);
+        return dto;
+    }
+
+    static UserDto userDto() {
+        UserDto dto = new UserDto();
+        dto.setEmail("user@example.com");
+        dto.setLogin("user");
+        dto.setName("Benchmark User");
+        dto.setBirthday(LocalDate.of(1990, 1, 1));
+        return dto;
+    }
+
+    static Film film(Long id) {
+        Film film = Film.of(filmDto());
+        film.setId(id);
+        return film;
+    }
+
+    /**
+     * Пользователь с email и логином, производными от id, чтобы не нарушать их уникальность.
+     */
+    static User user(long id) {
+        User user = User.of(userDto());
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setLogin("user" + id);
+        return user;
+    }
+
+}
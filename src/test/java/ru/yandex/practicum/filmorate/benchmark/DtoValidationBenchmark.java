@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.UserDto;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation тел запросов: корректные DTO и DTO с несколькими нарушениями, для которых
+ * валидатор ещё и строит сообщения.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=DtoValidationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private FilmDto validFilm;
+    private FilmDto invalidFilm;
+    private UserDto validUser;
+    private UserDto invalidUser;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validFilm = BenchmarkData.filmDto();
+        invalidFilm = BenchmarkData.filmDto();
+        invalidFilm.setName(" ");
+        invalidFilm.setReleaseDate(LocalDate.of(1890, 1, 1));
+        invalidFilm.setDuration(-1);
+        validUser = BenchmarkData.userDto();
+        invalidUser = BenchmarkData.userDto();
+        invalidUser.setEmail("not an email");
+        invalidUser.setLogin("with spaces");
+        invalidUser.setBirthday(LocalDate.now().plusYears(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FilmDto>> validFilmDto() {
+        return validator.validate(validFilm);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FilmDto>> invalidFilmDto() {
+        return validator.validate(invalidFilm);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validUserDto() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> invalidUserDto() {
+        return validator.validate(invalidUser);
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.dto.ErrorResponse;
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ответ на запрос несуществующего фильма: создание исключения и тела ошибки.
+ * <p>
+ * Исключение создаётся под цепочкой вызовов глубиной, близкой к обработчику Spring MVC:
+ * прежде исключения собирали стек, и его цена росла с глубиной. Прежнее тело ошибки
+ * форматировало {@link LocalDateTime#now()} на каждый ответ.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=ErrorPathBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final int REQUEST_STACK_DEPTH = 100;
+    private static final String MESSAGE = "Film with id 100000 not found";
+
+    @Benchmark
+    public RuntimeException exceptionBefore() {
+        return deep(REQUEST_STACK_DEPTH, true);
+    }
+
+    @Benchmark
+    public RuntimeException exceptionAfter() {
+        return deep(REQUEST_STACK_DEPTH, false);
+    }
+
+    @Benchmark
+    public String timestampBefore() {
+        return LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
+    }
+
+    @Benchmark
+    public ErrorResponse errorResponseAfter() {
+        return new ErrorResponse(404, "Failed to create film", MESSAGE);
+    }
+
+    private static RuntimeException deep(int depth, boolean withStack) {
+        if (depth > 0) {
+            return deep(depth - 1, withStack);
+        }
+        return withStack ? new RuntimeException(MESSAGE) : new NoFilmFoundException(MESSAGE);
+    }
+
+}
@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Время индексации и поиска по синтетическому каталогу. Слова названий и описаний выбираются
+ * из словаря по закону Ципфа, как в естественном тексте: несколько слов встречаются почти везде,
+ * большинство — редко.
+ * <p>
+ * Запуск: {@code java -Xmx3g -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.FilmSearchBenchmark [фильмов]}
+ */
+public class FilmSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int NAME_WORDS = 3;
+    private static final int DESCRIPTION_WORDS = 12;
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int QUERIES = 2_000;
+    private static final int LIMIT = 10;
+
+    public static void main(String[] args) {
+        int films = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] words = vocabulary();
+        double[] cumulative = zipf();
+        Random random = new Random(1);
+        FilmSearchIndex index = new FilmSearchIndex();
+
+        long start = System.nanoTime();
+        for (int added = 0; added < films; added += CHUNK_SIZE) {
+            List<Film> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = added; i < Math.min(films, added + CHUNK_SIZE); i++) {
+                Film film = new Film();
+                film.setId(i + 1L);
+                film.setName(text(words, cumulative, random, NAME_WORDS));
+                film.setDescription(text(words, cumulative, random, DESCRIPTION_WORDS));
+                chunk.add(film);
+            }
+            index.indexAll(chunk);
+        }
+        System.out.printf("indexed %d films in %.1f s%n", films, (System.nanoTime() - start) / 1e9);
+
+        System.out.printf("%-28s %10s %10s%n", "query", "p50, ms", "p99, ms");
+        run("rare word", index, () -> words[1_000 + random.nextInt(40_000)]);
+        run("frequent word", index, () -> words[random.nextInt(20)]);
+        run("two words", index, () -> words[random.nextInt(200)] + " " + words[random.nextInt(2_000)]);
+        run("typeahead, 3 letters", index, () -> words[random.nextInt(VOCABULARY)].substring(0, 3));
+        run("typeahead after a word", index,
+                () -> words[random.nextInt(500)] + " " + words[random.nextInt(VOCABULARY)].substring(0, 4));
+    }
+
+    private static void run(String name, FilmSearchIndex index, Supplier<String> queries) {
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = queries.get();
+            long start = System.nanoTime();
+            index.search(query, LIMIT);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-28s %10.2f %10.2f%n", name,
+                latencies[QUERIES / 2] / 1e6, latencies[QUERIES * 99 / 100] / 1e6);
+    }
+
+    private static String[] vocabulary() {
+        String[] words = new String[VOCABULARY];
+        Random random = new Random(0);
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static double[] zipf() {
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < VOCABULARY; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static String text(String[] words, double[] cumulative, Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            int word = Arrays.binarySearch(cumulative, random.nextDouble());
+            text.append(i == 0 ? "" : " ").append(words[word < 0 ? -word - 1 : word]);
+        }
+        return text.toString();
+    }
+
+}
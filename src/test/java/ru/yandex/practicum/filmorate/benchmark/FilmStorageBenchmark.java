@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конкурентный доступ к хранилищу фильмов в памяти, без кеша и с {@link CachingFilmStorage}:
+ * чтение по id вперемешку с изменениями (группа {@code mixed}: три читателя и один писатель)
+ * и параллельное добавление. Хранилище пересоздаётся и заполняется перед каждой итерацией,
+ * чтобы добавления не раздували его от итерации к итерации.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=FilmStorageBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmStorageBenchmark {
+
+    @Param({"memory", "caching"})
+    private String filmStorageType;
+
+    @Param("100000")
+    private int size;
+
+    private FilmStorage films;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.quietStorageLogs();
+        InMemoryFilmStorage memory = new InMemoryFilmStorage();
+        films = "caching".equals(filmStorageType)
+                ? new CachingFilmStorage(memory, size, Duration.ofMinutes(10))
+                : memory;
+        List<Film> initialFilms = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            initialFilms.add(BenchmarkData.film(id));
+        }
+        films.addAll(initialFilms);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Film> getFilm() {
+        return films.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Film updateFilm() {
+        return films.update(BenchmarkData.film(randomId()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Film addFilm() {
+        return films.add(BenchmarkData.film(null));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов и разбор тела запроса в JSON. {@link ObjectMapper} собирается тем же
+ * {@link Jackson2ObjectMapperBuilder}, что и в приложении, поэтому даты пишутся строками, как в API.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=JsonSerializationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectWriter writer;
+    private ObjectReader filmDtoReader;
+    private Film film;
+    private User user;
+    private List<Film> page;
+    private byte[] filmJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        filmDtoReader = objectMapper.readerFor(FilmDto.class);
+        film = BenchmarkData.film(1L);
+        user = BenchmarkData.user(1);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            page.add(BenchmarkData.film(id));
+        }
+        filmJson = writer.writeValueAsBytes(BenchmarkData.filmDto());
+    }
+
+    @Benchmark
+    public byte[] writeFilm() throws JsonProcessingException {
+        return writer.writeValueAsBytes(film);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws JsonProcessingException {
+        return writer.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] writeFilmPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public FilmDto readFilmDto() throws IOException {
+        return filmDtoReader.readValue(filmJson);
+    }
+
+}
@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование DTO в модель, которое контроллеры выполняют на каждый POST и PUT.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=ModelMappingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelMappingBenchmark {
+
+    private FilmDto filmDto;
+    private UserDto userDto;
+    private UserDto userDtoWithoutName;
+
+    @Setup
+    public void setUp() {
+        filmDto = BenchmarkData.filmDto();
+        userDto = BenchmarkData.userDto();
+        // без имени User.of подставляет логин
+        userDtoWithoutName = BenchmarkData.userDto();
+        userDtoWithoutName.setName(null);
+    }
+
+    @Benchmark
+    public Film filmOf() {
+        return Film.of(filmDto);
+    }
+
+    @Benchmark
+    public User userOf() {
+        return User.of(userDto);
+    }
+
+    @Benchmark
+    public User userOfWithoutName() {
+        return User.of(userDtoWithoutName);
+    }
+
+}
@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Задержка чтения топ-10 популярных фильмов, пока в фоне идёт поток лайков с заданной частотой.
+ * <p>
+ * Запуск: {@code java -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.PopularFilmsBenchmark [фильмов] [лайков в секунду]}
+ */
+public class PopularFilmsBenchmark {
+
+    private static final int TOP = 10;
+    private static final int WRITERS = 4;
+    private static final int READS = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int films = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int likesPerSecond = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        InMemoryLikeStorage storage = new InMemoryLikeStorage();
+        for (long film = 0; film < films; film++) {
+            storage.addLike(film, -film - 1);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong likes = new AtomicLong();
+        Thread[] writers = new Thread[WRITERS];
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * WRITERS / likesPerSecond;
+        for (int w = 0; w < WRITERS; w++) {
+            writers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long next = System.nanoTime();
+                while (running.get()) {
+                    // перекос в сторону первых фильмов, чтобы верх рейтинга постоянно менялся
+                    long film = (long) (films * Math.pow(random.nextDouble(), 3));
+                    long user = random.nextLong(1_000_000);
+                    if (!storage.addLike(film, user)) {
+                        storage.removeLike(film, user);
+                    }
+                    likes.incrementAndGet();
+                    next += intervalNanos;
+                    long sleep = next - System.nanoTime();
+                    if (sleep > 0) {
+                        LockSupport.parkNanos(sleep);
+                    }
+                }
+            });
+            writers[w].start();
+        }
+
+        long[] latencies = new long[READS];
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            long begin = System.nanoTime();
+            if (storage.findPopular(TOP).size() != TOP) {
+                throw new IllegalStateException("Top is incomplete");
+            }
+            latencies[i] = System.nanoTime() - begin;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("films %d, likes/sec %.0f, top-%d reads %d%n", films, likes.get() / seconds, TOP, READS);
+        System.out.printf("p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                latencies[READS / 2] / 1e3, latencies[READS * 99 / 100] / 1e3,
+                latencies[READS * 999 / 1000] / 1e3, latencies[READS - 1] / 1e3);
+    }
+
+}
@@ -0,0 +1,121 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.storage.friend.FriendStorage;
+import ru.yandex.practicum.filmorate.storage.friend.InMemoryFriendStorage;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Время расчёта рекомендаций друзей на синтетическом графе со степенным распределением степеней
+ * (модель Барабаши — Альберт: каждый новый пользователь дружит с {@code m} уже существующими,
+ * выбранными пропорционально числу их друзей).
+ * <p>
+ * Сравниваются наивный подсчёт через {@code Map<Long, Integer>}, расчёт хранилища без кеша и с кешем —
+ * отдельно для самых популярных пользователей и для случайных.
+ * <p>
+ * Запуск: {@code java -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.RecommendationsBenchmark [пользователей] [m]}
+ */
+public class RecommendationsBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final int HUBS = 50;
+    private static final int RANDOM_USERS = 2_000;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        InMemoryFriendStorage uncached = new InMemoryFriendStorage(0);
+        InMemoryFriendStorage cached = new InMemoryFriendStorage();
+        long edges = buildGraph(users, m, (long) users * m, uncached, cached);
+
+        long[] hubs = LongStream.range(0, users).boxed()
+                .sorted(Comparator.comparingInt(user -> -uncached.findFriendIds(user).length))
+                .limit(HUBS)
+                .mapToLong(Long::longValue)
+                .toArray();
+        long[] randomUsers = new Random(7).longs(RANDOM_USERS, 0, users).toArray();
+        System.out.printf("users %d, friendships %d, max degree %d%n",
+                users, edges, uncached.findFriendIds(hubs[0]).length);
+
+        System.out.printf("%-10s %14s %14s %14s%n", "users", "naive, us", "storage, us", "cached, us");
+        for (Map.Entry<String, long[]> sample : Map.of("hubs", hubs, "random", randomUsers).entrySet()) {
+            long[] sampleUsers = sample.getValue();
+            double naive = best(sampleUsers, user -> naive(uncached, user));
+            double direct = best(sampleUsers, user -> uncached.findRecommendedIds(user, LIMIT));
+            double fromCache = best(sampleUsers, user -> cached.findRecommendedIds(user, LIMIT));
+            System.out.printf("%-10s %14.1f %14.1f %14.1f%n", sample.getKey(), naive, direct, fromCache);
+        }
+    }
+
+    /**
+     * Добавляет рёбра по модели предпочтительного присоединения: список концов рёбер хранит каждого
+     * пользователя столько раз, сколько у него друзей, и случайный элемент выбирается пропорционально степени.
+     */
+    private static long buildGraph(int users, int m, long capacity, FriendStorage... storages) {
+        long[] endpoints = new long[(int) (2 * capacity)];
+        int size = 0;
+        long edges = 0;
+        Random random = new Random(42);
+        for (long user = 1; user <= m; user++) {
+            for (FriendStorage storage : storages) {
+                storage.addFriend(0, user);
+            }
+            endpoints[size++] = 0;
+            endpoints[size++] = user;
+            edges++;
+        }
+        for (long user = m + 1; user < users; user++) {
+            for (int i = 0; i < m; i++) {
+                long friend = endpoints[random.nextInt(size)];
+                boolean added = false;
+                for (FriendStorage storage : storages) {
+                    added = storage.addFriend(user, friend);
+                }
+                if (added) {
+                    endpoints[size++] = user;
+                    endpoints[size++] = friend;
+                    edges++;
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static long[] naive(FriendStorage storage, long userId) {
+        long[] friends = storage.findFriendIds(userId);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (long friend : friends) {
+            for (long candidate : storage.findFriendIds(friend)) {
+                if (candidate != userId && Arrays.binarySearch(friends, candidate) < 0) {
+                    counts.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(LIMIT)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    private static double best(long[] users, LongConsumer query) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (long user : users) {
+                query.accept(user);
+            }
+            best = Math.min(best, (System.nanoTime() - start) / 1_000.0 / users.length);
+        }
+        return best;
+    }
+
+}
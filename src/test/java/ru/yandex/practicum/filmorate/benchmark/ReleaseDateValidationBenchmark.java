@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.yandex.practicum.filmorate.dto.FilmDto;
+import ru.yandex.practicum.filmorate.validation.NotBeforeFirstFilmValidator;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки даты выхода фильма: прежняя проверка через {@link Calendar}, новый
+ * {@link NotBeforeFirstFilmValidator} и полная валидация {@link FilmDto}, как её выполняет контроллер.
+ * Профайлер GC показывает выделение памяти на вызов ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Запуск: {@code java -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.ReleaseDateValidationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReleaseDateValidationBenchmark {
+
+    private final NotBeforeFirstFilmValidator validator = new NotBeforeFirstFilmValidator();
+    private final Date legacyDate = new Date(946_684_800_000L);
+    private final LocalDate releaseDate = LocalDate.of(2000, 1, 1);
+    private ValidatorFactory validatorFactory;
+    private Validator beanValidator;
+    private FilmDto film;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+        film = new FilmDto();
+        film.setName("Film");
+        film.setDescription("Description");
+        film.setReleaseDate(releaseDate);
+        film.setDuration(120);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * Прежняя проверка {@code FilmDto.isNotBeforeFirstFilm()}.
+     */
+    @Benchmark
+    public boolean legacyCalendarCheck() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(1895, Calendar.DECEMBER, 27, 23, 59, 59);
+        Date dateBeforeFirstFilm = calendar.getTime();
+        return legacyDate.after(dateBeforeFirstFilm);
+    }
+
+    @Benchmark
+    public boolean constraintValidator() {
+        return validator.isValid(releaseDate, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FilmDto>> validateFilmDto() {
+        return beanValidator.validate(film);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReleaseDateValidationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FileFilmStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Время от старта хранилища до ответа на первый запрос в зависимости от размера снимка.
+ * <p>
+ * Запуск: {@code java -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.SnapshotStartupBenchmark [размеры через пробел]}
+ */
+public class SnapshotStartupBenchmark {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        long[] sizes = args.length == 0
+                ? new long[]{10_000, 100_000, 1_000_000}
+                : Stream.of(args).mapToLong(Long::parseLong).toArray();
+        System.out.printf("%12s %14s %18s%n", "films", "snapshot, MB", "first request, ms");
+        for (long size : sizes) {
+            Path dir = Files.createTempDirectory("filmorate-bench");
+            try {
+                fill(dir, size);
+                long snapshotBytes = directorySize(dir);
+                double best = Double.MAX_VALUE;
+                for (int run = 0; run < RUNS; run++) {
+                    long start = System.nanoTime();
+                    FileFilmStorage storage = new FileFilmStorage(dir, Long.MAX_VALUE);
+                    storage.findById(size).orElseThrow();
+                    best = Math.min(best, (System.nanoTime() - start) / 1_000_000.0);
+                    storage.close();
+                }
+                System.out.printf("%12d %14.1f %18.1f%n", size, snapshotBytes / 1024.0 / 1024.0, best);
+            } finally {
+                delete(dir);
+            }
+        }
+    }
+
+    private static void fill(Path dir, long size) throws IOException {
+        FileFilmStorage storage = new FileFilmStorage(dir, Long.MAX_VALUE);
+        for (long added = 0; added < size; added += CHUNK_SIZE) {
+            List<Film> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (long i = added; i < Math.min(size, added + CHUNK_SIZE); i++) {
+                Film film = new Film();
+                film.setName("Film " + i);
+                film.setDescription("Description of film number " + i);
+                film.setReleaseDate(LocalDate.ofEpochDay(i));
+                film.setDuration(90 + (int) (i % 60));
+                chunk.add(film);
+            }
+            storage.addAll(chunk);
+        }
+        storage.close();
+    }
+
+    private static long directorySize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Одновременные медленные клиенты NDJSON-выдачи {@code GET /films}: время до первого байта и до конца ответа
+ * и пиковое число потоков ОС в процессе при записи ответов на виртуальных потоках
+ * ({@code filmorate.streaming.virtual-threads=true}) и на исполнителе Spring MVC по умолчанию.
+ * <p>
+ * Каждый клиент читает ответ буферами по {@link #READ_BUFFER} байт с паузой {@link #READ_PAUSE_MILLIS} мс
+ * через сокет с приёмным буфером {@link #RECEIVE_BUFFER} байт, как клиент на медленном канале: иначе на loopback
+ * весь ответ помещается в буферы ядра и сервер не ждёт клиента. Режимы сравниваются в отдельных JVM.
+ * <p>
+ * Запуск: {@code java -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.StreamingLoadBenchmark true|false [клиентов через запятую] [фильмов]}
+ */
+public class StreamingLoadBenchmark {
+
+    private static final int READ_BUFFER = 16 * 1024;
+    private static final int READ_PAUSE_MILLIS = 5;
+    private static final int RECEIVE_BUFFER = 64 * 1024;
+    private static final int BATCH_SIZE = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = Boolean.parseBoolean(args.length > 0 ? args[0] : "true");
+        int[] clientCounts = args.length > 1
+                ? Stream.of(args[1].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{8, 64, 512};
+        int films = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        // аргументы командной строки, а не properties(): значения по умолчанию перекрывает application.properties
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--filmorate.streaming.virtual-threads=" + virtual,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            URI base = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port"));
+            preload(client, base, films);
+            run(base, clientCounts[0]);
+
+            System.out.printf("virtual stream writers %s, %d films per stream%n", virtual, films);
+            System.out.printf("%8s %16s %16s %16s %16s%n",
+                    "clients", "first byte p50", "first byte p99", "complete p99, s", "peak OS threads");
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            for (int clients : clientCounts) {
+                threads.resetPeakThreadCount();
+                long[][] timings = run(base, clients);
+                long[] firstByte = Arrays.stream(timings).mapToLong(t -> t[0]).sorted().toArray();
+                long[] complete = Arrays.stream(timings).mapToLong(t -> t[1]).sorted().toArray();
+                System.out.printf("%8d %13.1f ms %13.1f ms %16.1f %16d%n", clients,
+                        firstByte[clients / 2] / 1e6, firstByte[clients * 99 / 100] / 1e6,
+                        complete[clients * 99 / 100] / 1e9, threads.getPeakThreadCount());
+            }
+        }
+    }
+
+    private static void preload(HttpClient client, URI base, int films) throws IOException, InterruptedException {
+        for (int added = 0; added < films; added += BATCH_SIZE) {
+            StringBuilder body = new StringBuilder();
+            for (int i = added; i < Math.min(films, added + BATCH_SIZE); i++) {
+                body.append("{\"name\":\"Film ").append(i)
+                        .append("\",\"description\":\"Description of film number ").append(i)
+                        .append("\",\"releaseDate\":\"2000-01-01\",\"duration\":100}\n");
+            }
+            client.send(HttpRequest.newBuilder(base.resolve("/films/batch"))
+                            .header("Content-Type", "application/x-ndjson")
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    /**
+     * @return для каждого клиента время до первого байта и до конца ответа в наносекундах
+     */
+    private static long[][] run(URI base, int clients) throws Exception {
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> stream(base)));
+            }
+            long[][] timings = new long[clients][];
+            for (int c = 0; c < clients; c++) {
+                timings[c] = futures.get(c).get();
+            }
+            return timings;
+        }
+    }
+
+    private static long[] stream(URI base) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long firstByte = -1;
+        byte[] buffer = new byte[READ_BUFFER];
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(RECEIVE_BUFFER);
+            socket.connect(new InetSocketAddress(base.getHost(), base.getPort()));
+            socket.getOutputStream().write(("GET /films HTTP/1.1\r\nHost: " + base.getHost()
+                    + "\r\nAccept: application/x-ndjson\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            InputStream body = socket.getInputStream();
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                if (firstByte < 0 && read > 0) {
+                    firstByte = System.nanoTime() - start;
+                }
+                TimeUnit.MILLISECONDS.sleep(READ_PAUSE_MILLIS);
+            }
+        }
+        return new long[]{firstByte, System.nanoTime() - start};
+    }
+
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конкурентный доступ к хранилищу пользователей в памяти: чтение по id вперемешку с изменениями
+ * (группа {@code mixed}: три читателя и один писатель) и параллельная регистрация с проверкой
+ * уникальности email и логина. Хранилище пересоздаётся перед каждой итерацией.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=UserStorageBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserStorageBenchmark {
+
+    @Param("100000")
+    private int size;
+
+    private UserStorage users;
+    private final AtomicLong nextUserId = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.quietStorageLogs();
+        users = new InMemoryUserStorage();
+        List<User> initialUsers = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            initialUsers.add(BenchmarkData.user(id));
+        }
+        users.addAll(initialUsers);
+        nextUserId.set(size + 1L);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<User> getUser() {
+        return users.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public User updateUser() {
+        return users.update(BenchmarkData.user(randomId()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public User addUser() {
+        User user = BenchmarkData.user(nextUserId.getAndIncrement());
+        user.setId(null);
+        return users.add(user);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+}
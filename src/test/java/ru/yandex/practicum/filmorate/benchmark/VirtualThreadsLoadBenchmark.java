@@ -0,0 +1,184 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный тест: пропускная способность и задержки приложения при обработке запросов
+ * на платформенных и на виртуальных потоках ({@code spring.threads.virtual.enabled}).
+ * <p>
+ * Приложение поднимается на случайном порту. Клиенты работают по замкнутому циклу: каждый ждёт ответа
+ * и сразу шлёт следующий запрос. Доля {@link #WRITE_PERCENT} запросов — регистрация пользователя
+ * (для хранилища file это запись в журнал и fsync), остальные — чтение пользователя по id.
+ * <p>
+ * Режимы сравниваются в отдельных JVM: в общей JVM второй прогон заметно быстрее первого из-за прогретого JIT.
+ * <p>
+ * Запуск: {@code java -cp target/test-classes:target/classes:<зависимости>
+ * ru.yandex.practicum.filmorate.benchmark.VirtualThreadsLoadBenchmark platform|virtual [file|jdbc|memory]
+ * [клиентов через запятую] [секунд]}
+ */
+public class VirtualThreadsLoadBenchmark {
+
+    private static final int PRELOADED_USERS = 1_000;
+    private static final int WRITE_PERCENT = 20;
+    private static final int WARMUP_SECONDS = 20;
+
+    private static final AtomicLong LOGINS = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = "virtual".equals(args.length > 0 ? args[0] : "platform");
+        String storage = args.length > 1 ? args[1] : "file";
+        int[] clientCounts = args.length > 2
+                ? Stream.of(args[2].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{50, 400, 2_000};
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+
+        Path dataDir = Files.createTempDirectory("filmorate-load");
+        try (ConfigurableApplicationContext app = start(storage, virtual, dataDir);
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            URI base = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port"));
+            preload(client, base);
+            run(client, base, clientCounts[clientCounts.length - 1], WARMUP_SECONDS);
+
+            System.out.printf("%s threads, storage %s, %d%% writes, %d s per run%n",
+                    virtual ? "virtual" : "platform", storage, WRITE_PERCENT, seconds);
+            System.out.printf("%8s %12s %10s %10s %8s%n", "clients", "requests/s", "p50, ms", "p99, ms", "errors");
+            for (int clients : clientCounts) {
+                Result result = run(client, base, clients, seconds);
+                System.out.printf("%8d %12.0f %10.2f %10.2f %8d%n",
+                        clients, result.throughput(), result.p50Millis(), result.p99Millis(), result.errors());
+            }
+        } finally {
+            delete(dataDir);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String storage, boolean virtual, Path dataDir) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(FilmorateApplication.class);
+        if ("jdbc".equals(storage)) {
+            builder.profiles("jdbc");
+        }
+        // аргументы командной строки, а не properties(): значения по умолчанию перекрывает application.properties
+        return builder.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--filmorate.storage.type=" + storage,
+                "--filmorate.storage.file.dir=" + dataDir,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + ";DB_CLOSE_DELAY=-1",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+    }
+
+    private static void preload(HttpClient client, URI base) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < PRELOADED_USERS; i++) {
+            body.append(userJson()).append('\n');
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(base.resolve("/users/batch"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Preload failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static Result run(HttpClient client, URI base, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        AtomicLong errors = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> clientLoop(client, base, deadline, errors)));
+            }
+            List<long[]> perClient = new ArrayList<>(clients);
+            for (Future<long[]> future : futures) {
+                perClient.add(future.get());
+            }
+            long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            if (latencies.length == 0) {
+                return new Result(0, 0, 0, errors.get());
+            }
+            return new Result(latencies.length / (double) seconds,
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[(int) (latencies.length * 0.99)] / 1e6,
+                    errors.get());
+        }
+    }
+
+    private static long[] clientLoop(HttpClient client, URI base, long deadline, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = random.nextInt(100) < WRITE_PERCENT
+                    ? HttpRequest.newBuilder(base.resolve("/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(userJson()))
+                            .build()
+                    : HttpRequest.newBuilder(base.resolve("/users/" + (1 + random.nextInt(PRELOADED_USERS))))
+                            .GET()
+                            .build();
+            long start = System.nanoTime();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static String userJson() {
+        long n = LOGINS.incrementAndGet();
+        return "{\"email\":\"user" + n + "@example.com\",\"login\":\"user" + n + "\",\"name\":\"User " + n
+                + "\",\"birthday\":\"1990-01-01\"}";
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+
+}
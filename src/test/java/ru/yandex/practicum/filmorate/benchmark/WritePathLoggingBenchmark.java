@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.exceptions.InvalidUserDataException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость логирования на пути записи: прежние сообщения контроллеров и хранилищ против нынешних,
+ * с синхронной записью в файл и через {@link AsyncAppender}, как в {@code logback-spring.xml}.
+ * <p>
+ * Прежде добавление пользователя писало две строки INFO, одна с {@code toString()} всей сущности,
+ * изменение — строку с {@code toString()} входящего DTO, а ошибка клиента — ERROR со стеком исключения.
+ * Глубина стека близка к реальной: исключение создаётся под цепочкой вызовов, как в обработчике Spring MVC.
+ * <p>
+ * Запуск: {@code mvn -B -Pjmh verify -Djmh.include=WritePathLoggingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class WritePathLoggingBenchmark {
+
+    private static final int REQUEST_STACK_DEPTH = 100;
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private Path logFile;
+    private Appender<ILoggingEvent> root;
+    private Logger log;
+    private UserDto dto;
+    private User user;
+    private InvalidUserDataException clientError;
+
+    @Setup
+    public void setUp() throws IOException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logFile = Files.createTempFile("filmorate-logging", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+        root = file;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            // без сброса INFO при заполненной очереди: измеряется доставка всех строк, а не их потеря
+            async.setDiscardingThreshold(0);
+            async.addAppender(file);
+            async.start();
+            root = async;
+        }
+
+        log = context.getLogger("ru.yandex.practicum.filmorate.controller.UserController");
+        log.detachAndStopAllAppenders();
+        log.setAdditive(false);
+        log.setLevel(Level.INFO);
+        log.addAppender(root);
+
+        dto = BenchmarkData.userDto();
+        dto.setId(42L);
+        user = User.of(dto);
+        clientError = deep(REQUEST_STACK_DEPTH);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        log.detachAndStopAllAppenders();
+        root.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void addUserBefore() {
+        log.info("User id is empty. Set new id: {}", user.getId());
+        log.info("User added new user: {}", user);
+    }
+
+    @Benchmark
+    public void addUserAfter() {
+        log.debug("User id is empty. Set new id: {}", user.getId());
+        log.info("User added new user with id {}", user.getId());
+        log.debug("Added user: {}", user);
+    }
+
+    @Benchmark
+    public void updateUserBefore() {
+        log.info("Update user {} request", dto);
+        log.info("User updated user with id {}", user.getId());
+    }
+
+    @Benchmark
+    public void updateUserAfter() {
+        log.info("User updated user with id {}", user.getId());
+    }
+
+    @Benchmark
+    public void clientErrorBefore() {
+        log.error(clientError.getMessage(), clientError);
+    }
+
+    @Benchmark
+    public void clientErrorAfter() {
+        log.warn(clientError.getMessage());
+    }
+
+    private static InvalidUserDataException deep(int depth) {
+        return depth == 0 ? new InvalidUserDataException("User id is empty. Failed to update user") : deep(depth - 1);
+    }
+
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessLogFilterTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+
+    @Test
+    void testShouldLog_whenSamplingIsOff_ShouldLogOnlyServerErrorsAndSlowRequests() {
+        AccessLogFilter filter = new AccessLogFilter(0, Duration.ofSeconds(1));
+
+        assertFalse(filter.shouldLog(200, FAST));
+        assertFalse(filter.shouldLog(404, FAST));
+        assertTrue(filter.shouldLog(500, FAST));
+        assertTrue(filter.shouldLog(200, Duration.ofSeconds(2).toNanos()));
+    }
+
+    @Test
+    void testShouldLog_whenSampleEveryIsOne_ShouldLogEveryRequest() {
+        AccessLogFilter filter = new AccessLogFilter(1, Duration.ofSeconds(1));
+
+        assertTrue(filter.shouldLog(200, FAST));
+        assertTrue(filter.shouldLog(404, FAST));
+    }
+
+    @Test
+    void testShouldLog_whenSampling_ShouldLogAboutOneInN() {
+        AccessLogFilter filter = new AccessLogFilter(100, Duration.ofSeconds(1));
+
+        int logged = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.shouldLog(200, FAST)) {
+                logged++;
+            }
+        }
+
+        assertTrue(logged > 800 && logged < 1_200, "logged " + logged);
+    }
+
+}
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -9,22 +10,32 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.yandex.practicum.filmorate.dto.FilmDto;
-
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.HashMap;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmFilterIndex;
+import ru.yandex.practicum.filmorate.storage.film.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FilmController.class)
+@Import({InMemoryFilmStorage.class, FilmSearchIndex.class, FilmFilterIndex.class, InMemoryLikeStorage.class, InMemoryUserStorage.class,
+        SimpleMeterRegistry.class})
 public class FilmControllerTest {
 
     @Autowired
@@ -37,7 +48,7 @@ public class FilmControllerTest {
     private ObjectMapper objectMapper;
 
     private FilmDto validFilmDto;
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private InMemoryUserStorage userStorage;
 
     @BeforeEach
     void setUp() {
@@ -45,13 +56,15 @@ public class FilmControllerTest {
         validFilmDto.setId(1L);
         validFilmDto.setName("film");
         validFilmDto.setDescription("description");
-
-        Calendar cal = Calendar.getInstance();
-        cal.set(2000, Calendar.JANUARY, 1);
-        validFilmDto.setReleaseDate(cal.getTime());
+        validFilmDto.setReleaseDate(LocalDate.of(2000, 1, 1));
         validFilmDto.setDuration(120);
 
-        ReflectionTestUtils.setField(filmController, "films", new HashMap<>());
+        ReflectionTestUtils.setField(filmController, "filmStorage", new InMemoryFilmStorage());
+        ReflectionTestUtils.setField(filmController, "likeStorage", new InMemoryLikeStorage());
+        ReflectionTestUtils.setField(filmController, "searchIndex", new FilmSearchIndex());
+        ReflectionTestUtils.setField(filmController, "filterIndex", new FilmFilterIndex());
+        userStorage = new InMemoryUserStorage();
+        ReflectionTestUtils.setField(filmController, "userStorage", userStorage);
     }
 
     @Test
@@ -105,6 +118,479 @@ public class FilmControllerTest {
                 .andExpect(jsonPath("$[0].description", is("descr edited")));
     }
 
+    @Test
+    void testFilmController_getFilm_ShouldReturnFilmWithEtag() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+
+        mockMvc.perform(get("/films/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.version", is(1)));
+    }
+
+    @Test
+    void testFilmController_getFilm_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+
+        mockMvc.perform(get("/films/1").header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testFilmController_getFilm_AfterFilmUpdated_ShouldChangeEtag() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        validFilmDto.setName("changed");
+        mockMvc.perform(put("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+
+        mockMvc.perform(get("/films/1").header("If-None-Match", "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.name", is("changed")));
+    }
+
+    @Test
+    void testFilmController_updateFilm_WithMatchingIfMatch_ShouldUpdateAndReturnNewEtag() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        validFilmDto.setName("changed");
+
+        mockMvc.perform(put("/films")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.version", is(2)));
+    }
+
+    @Test
+    void testFilmController_updateFilm_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        mockMvc.perform(put("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        validFilmDto.setName("stale");
+
+        for (String ifMatch : List.of("\"1\"", "W/\"2\"", "2")) {
+            mockMvc.perform(put("/films")
+                            .header("If-Match", ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validFilmDto)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(jsonPath("$.status", is(412)));
+        }
+        mockMvc.perform(get("/films/1"))
+                .andExpect(jsonPath("$.name", is("film")))
+                .andExpect(jsonPath("$.version", is(2)));
+    }
+
+    @Test
+    void testFilmController_updateFilm_WithStaleBodyVersion_ShouldReturnConflict() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        validFilmDto.setVersion(1L);
+        mockMvc.perform(put("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Film with id 1 has version 2, expected 1")));
+    }
+
+    @Test
+    void testFilmController_updateFilm_WithIfMatchOnMissingFilm_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/films")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testFilmController_updateFilm_WithAnyIfMatchAndStaleBodyVersion_ShouldReturnConflict() throws Exception {
+        mockMvc.perform(post("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        mockMvc.perform(put("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validFilmDto)));
+        validFilmDto.setVersion(1L);
+
+        mockMvc.perform(put("/films")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testFilmController_updateFilm_WithAnyIfMatchOnMissingFilm_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/films")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testFilmController_getFilm_WhenFilmIsMissing_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/films/42"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testFilmController_getPopularFilms_ShouldOrderByLikesThenById() throws Exception {
+        addFilms(3);
+        addUsers(2);
+        mockMvc.perform(put("/films/3/like/1")).andExpect(status().isOk());
+        mockMvc.perform(put("/films/3/like/2")).andExpect(status().isOk());
+        mockMvc.perform(put("/films/2/like/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/films/popular").param("count", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(3, 2)));
+    }
+
+    @Test
+    void testFilmController_getPopularFilms_WhenFewFilmsLiked_ShouldFillWithOtherFilms() throws Exception {
+        addFilms(3);
+        addUsers(1);
+        mockMvc.perform(put("/films/2/like/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/films/popular"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(2, 1, 3)));
+    }
+
+    @Test
+    void testFilmController_addLike_Twice_ShouldCountOnce() throws Exception {
+        addFilms(2);
+        addUsers(2);
+        mockMvc.perform(put("/films/1/like/1")).andExpect(status().isOk());
+        mockMvc.perform(put("/films/1/like/1")).andExpect(status().isOk());
+        mockMvc.perform(put("/films/2/like/1")).andExpect(status().isOk());
+        mockMvc.perform(put("/films/2/like/2")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/films/popular"))
+                .andExpect(jsonPath("$[*].id", contains(2, 1)));
+    }
+
+    @Test
+    void testFilmController_removeLike_ShouldLowerFilmInPopular() throws Exception {
+        addFilms(2);
+        addUsers(1);
+        mockMvc.perform(put("/films/2/like/1")).andExpect(status().isOk());
+        mockMvc.perform(delete("/films/2/like/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/films/popular"))
+                .andExpect(jsonPath("$[*].id", contains(1, 2)));
+    }
+
+    @Test
+    void testFilmController_addLike_WhenFilmOrUserIsMissing_ShouldReturnNotFound() throws Exception {
+        addFilms(1);
+        addUsers(1);
+
+        mockMvc.perform(put("/films/42/like/1")).andExpect(status().isNotFound());
+        mockMvc.perform(put("/films/1/like/42")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/films/1/like/42")).andExpect(status().isNotFound());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "1001"})
+    void testFilmController_getPopularFilms_WithInvalidCount_ShouldReturnBadRequest(String count) throws Exception {
+        mockMvc.perform(get("/films/popular").param("count", count))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFilmController_searchFilms_ShouldRankNameMatchesFirstAndMatchPrefix() throws Exception {
+        addFilm("Space Odyssey", "A journey through the stars");
+        addFilm("Ocean", "Documentary about space and the deep sea");
+        addFilm("Comedy", "Nothing to see here");
+
+        mockMvc.perform(get("/films/search").param("query", "SPACE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(1, 2)));
+        mockMvc.perform(get("/films/search").param("query", "space od"))
+                .andExpect(jsonPath("$[*].id", contains(1)));
+        mockMvc.perform(get("/films/search").param("query", "missing"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testFilmController_searchFilms_AfterUpdate_ShouldUseNewText() throws Exception {
+        addFilm("Space Odyssey", "A journey through the stars");
+        validFilmDto.setId(1L);
+        validFilmDto.setName("Renamed");
+        validFilmDto.setDescription("Nothing here");
+        mockMvc.perform(put("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/films/search").param("query", "space"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/films/search").param("query", "renam"))
+                .andExpect(jsonPath("$[*].id", contains(1)));
+    }
+
+    @Test
+    void testFilmController_searchFilms_AfterBatchImport_ShouldFindImportedFilms() throws Exception {
+        validFilmDto.setId(null);
+        validFilmDto.setName("Imported thriller");
+        mockMvc.perform(post("/films/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(validFilmDto))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/films/search").param("query", "thrill"))
+                .andExpect(jsonPath("$[*].name", contains("Imported thriller")));
+    }
+
+    @Test
+    void testFilmController_searchFilms_WithBlankQuery_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/films/search").param("query", "  "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFilmController_getFilms_WithReleaseAndDurationFilters_ShouldReturnMatchingFilms() throws Exception {
+        addFilm("1990-05-01", 90);
+        addFilm("2000-01-01", 120);
+        addFilm("2000-12-31", 150);
+        addFilm("2010-01-01", 100);
+
+        mockMvc.perform(get("/films").param("releasedFrom", "2000-01-01").param("releasedTo", "2000-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(2, 3)));
+        mockMvc.perform(get("/films").param("minDuration", "100").param("maxDuration", "120"))
+                .andExpect(jsonPath("$[*].id", contains(2, 4)));
+        mockMvc.perform(get("/films").param("releasedFrom", "1995-01-01").param("maxDuration", "120"))
+                .andExpect(jsonPath("$[*].id", contains(2, 4)));
+    }
+
+    @Test
+    void testFilmController_streamFilms_WithDurationFilter_ShouldWriteOnlyMatchingFilms() throws Exception {
+        addFilm("1990-05-01", 90);
+        addFilm("2000-01-01", 120);
+        addFilm("2000-12-31", 150);
+        addFilm("2010-01-01", 130);
+
+        var result = mockMvc.perform(get("/films").param("minDuration", "120").param("after", "2")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(3L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(4L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testFilmController_streamFilms_WithInvertedDurationRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/films").param("minDuration", "150").param("maxDuration", "120")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFilmController_getFilms_WithFilterAndLimit_ShouldPageByCursor() throws Exception {
+        addFilm("2000-01-01", 100);
+        addFilm("2001-01-01", 100);
+        addFilm("2002-01-01", 100);
+
+        mockMvc.perform(get("/films").param("minDuration", "100").param("limit", "2"))
+                .andExpect(header().string(FilmController.NEXT_CURSOR_HEADER, "2"))
+                .andExpect(jsonPath("$[*].id", contains(1, 2)));
+        mockMvc.perform(get("/films").param("minDuration", "100").param("limit", "2").param("after", "2"))
+                .andExpect(header().doesNotExist(FilmController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[*].id", contains(3)));
+    }
+
+    @Test
+    void testFilmController_getFilms_AfterUpdate_ShouldMoveFilmBetweenIndexRanges() throws Exception {
+        addFilm("2000-01-01", 100);
+        validFilmDto.setId(1L);
+        validFilmDto.setDuration(200);
+        mockMvc.perform(put("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/films").param("maxDuration", "150"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/films").param("minDuration", "150"))
+                .andExpect(jsonPath("$[*].id", contains(1)));
+    }
+
+    @Test
+    void testFilmController_getFilms_WhenIndexLagsBehindStorage_ShouldRecheckRange() throws Exception {
+        addFilm("2000-01-01", 100);
+        // правка уже в хранилище, но индекс её ещё не увидел
+        Film updated = Film.of(validFilmDto);
+        updated.setId(1L);
+        updated.setDuration(200);
+        ((InMemoryFilmStorage) ReflectionTestUtils.getField(filmController, "filmStorage")).update(updated);
+
+        mockMvc.perform(get("/films").param("maxDuration", "150"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testFilmController_getFilms_WithInvertedRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/films").param("releasedFrom", "2001-01-01").param("releasedTo", "2000-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/films").param("minDuration", "200").param("maxDuration", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFilmController_getFilms_WithLimit_ShouldReturnPagesByCursor() throws Exception {
+        validFilmDto.setId(null);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/films")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validFilmDto)));
+        }
+
+        mockMvc.perform(get("/films").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(FilmController.NEXT_CURSOR_HEADER, "2"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+
+        mockMvc.perform(get("/films").param("limit", "2").param("after", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(FilmController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 1001})
+    void testFilmController_getFilms_WithInvalidLimit_ShouldReturnBadRequest(int limit) throws Exception {
+        mockMvc.perform(get("/films").param("limit", String.valueOf(limit)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFilmController_streamFilms_ShouldWriteNdjson() throws Exception {
+        validFilmDto.setId(null);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/films")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validFilmDto)));
+        }
+
+        var result = mockMvc.perform(get("/films").param("after", "1").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(10).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(3L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testFilmController_importFilms_ShouldCreateValidAndReportInvalidItems() throws Exception {
+        FilmDto invalidFilmDto = new FilmDto();
+        invalidFilmDto.setName("");
+        invalidFilmDto.setReleaseDate(validFilmDto.getReleaseDate());
+        invalidFilmDto.setDuration(120);
+
+        mockMvc.perform(post("/films/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FilmDto[]{validFilmDto, invalidFilmDto, validFilmDto})))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is("INVALID")))
+                .andExpect(jsonPath("$[1].errors", hasSize(1)))
+                .andExpect(jsonPath("$[2].status", is("CREATED")))
+                .andExpect(jsonPath("$[2].id", is(2)));
+
+        mockMvc.perform(get("/films"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void testFilmController_importFilms_WithNdjson_ShouldCreateFilms() throws Exception {
+        String line = objectMapper.writeValueAsString(validFilmDto);
+
+        mockMvc.perform(post("/films/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n" + line + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+    }
+
+    @Test
+    void testFilmController_importFilms_WithNullItems_ShouldReportThemInvalid() throws Exception {
+        String film = objectMapper.writeValueAsString(validFilmDto);
+
+        mockMvc.perform(post("/films/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + film + ", null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is("INVALID")));
+        mockMvc.perform(post("/films/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("null\n" + film + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("INVALID")))
+                .andExpect(jsonPath("$[1].status", is("CREATED")));
+    }
+
+    @Test
+    void testFilmController_importFilms_WithMalformedBody_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/films/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": "))
+                .andExpect(status().isBadRequest());
+    }
+
     @ParameterizedTest
     @MethodSource("invalidFilmProvider")
     void testFilmController_addFilm_WithInvalidData_ShouldReturnBadRequest(FilmDto invalidFilmDto) throws Exception {
@@ -114,6 +600,20 @@ public class FilmControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testFilmController_addFilm_WithInvalidData_ShouldReturnCompactError() throws Exception {
+        validFilmDto.setName("");
+
+        mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.error", is("Invalid request body")))
+                .andExpect(jsonPath("$.message", is("name: Имя не может быть пустым")))
+                .andExpect(jsonPath("$.timestamp", notNullValue()));
+    }
+
     @ParameterizedTest
     @MethodSource("invalidFilmProvider")
     void testFilmController_updateFilm_WithInvalidData_ShouldReturnBadRequest(FilmDto invalidFilmDto) throws Exception {
@@ -148,14 +648,14 @@ public class FilmControllerTest {
 
     @ParameterizedTest
     @ValueSource(strings = {
+            "1895-12-28",
             "1895-12-29",
             "1900-01-01",
             "2000-01-01",
             "2024-01-01"
     })
     void testFilmController_addFilm_WithValidReleaseDates_ShouldSucceed(String dateString) throws Exception {
-        Date releaseDate = dateFormat.parse(dateString);
-        validFilmDto.setReleaseDate(releaseDate);
+        validFilmDto.setReleaseDate(LocalDate.parse(dateString));
 
         mockMvc.perform(post("/films")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -170,8 +670,7 @@ public class FilmControllerTest {
         "1700-01-01"
     })
     void testFilmController_addFilm_WithInvalidReleaseDates_ShouldReject(String dateString) throws Exception {
-        Date releaseDate = dateFormat.parse(dateString);
-        validFilmDto.setReleaseDate(releaseDate);
+        validFilmDto.setReleaseDate(LocalDate.parse(dateString));
 
         mockMvc.perform(post("/films")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -216,21 +715,21 @@ public class FilmControllerTest {
         nullNameFilm.setId(2L);
         nullNameFilm.setName(null);
         nullNameFilm.setDescription("Test");
-        nullNameFilm.setReleaseDate(new Date());
+        nullNameFilm.setReleaseDate(LocalDate.now());
         nullNameFilm.setDuration(120);
 
         FilmDto emptyNameFilm = new FilmDto();
         emptyNameFilm.setId(3L);
         emptyNameFilm.setName("");
         emptyNameFilm.setDescription("Test");
-        emptyNameFilm.setReleaseDate(new Date());
+        emptyNameFilm.setReleaseDate(LocalDate.now());
         emptyNameFilm.setDuration(120);
 
         FilmDto blankNameFilm = new FilmDto();
         blankNameFilm.setId(4L);
         blankNameFilm.setName("   ");
         blankNameFilm.setDescription("Test");
-        blankNameFilm.setReleaseDate(new Date());
+        blankNameFilm.setReleaseDate(LocalDate.now());
         blankNameFilm.setDuration(120);
 
         FilmDto nullReleaseDateFilm = new FilmDto();
@@ -244,7 +743,7 @@ public class FilmControllerTest {
         nullDurationFilm.setId(6L);
         nullDurationFilm.setName("Test");
         nullDurationFilm.setDescription("Test");
-        nullDurationFilm.setReleaseDate(new Date());
+        nullDurationFilm.setReleaseDate(LocalDate.now());
         nullDurationFilm.setDuration(null);
 
         return Stream.of(
@@ -256,6 +755,44 @@ public class FilmControllerTest {
         );
     }
 
+    private void addFilm(String name, String description) throws Exception {
+        validFilmDto.setId(null);
+        validFilmDto.setName(name);
+        validFilmDto.setDescription(description);
+        mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isOk());
+    }
+
+    private void addFilm(String releaseDate, int duration) throws Exception {
+        validFilmDto.setId(null);
+        validFilmDto.setReleaseDate(LocalDate.parse(releaseDate));
+        validFilmDto.setDuration(duration);
+        mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilmDto)))
+                .andExpect(status().isOk());
+    }
+
+    private void addFilms(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(post("/films")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validFilmDto)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private void addUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@example.com");
+            user.setLogin("user" + i);
+            userStorage.add(user);
+        }
+    }
+
     private static Stream<Arguments> nameValidationProvider() {
         return Stream.of(
                 Arguments.of("Valid Name", true),
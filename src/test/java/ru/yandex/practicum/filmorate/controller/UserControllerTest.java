@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -9,21 +10,24 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.yandex.practicum.filmorate.dto.UserDto;
+import ru.yandex.practicum.filmorate.storage.friend.InMemoryFriendStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
+import java.time.LocalDate;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import({InMemoryUserStorage.class, InMemoryFriendStorage.class, SimpleMeterRegistry.class})
 public class UserControllerTest {
 
     @Autowired
@@ -36,7 +40,7 @@ public class UserControllerTest {
     private ObjectMapper objectMapper;
 
     private UserDto validUserDto;
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private int addedUsers;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -45,10 +49,10 @@ public class UserControllerTest {
         validUserDto.setEmail("user@example.com");
         validUserDto.setLogin("login");
         validUserDto.setName("username");
-        validUserDto.setBirthday(dateFormat.parse("1990-01-01"));
+        validUserDto.setBirthday(LocalDate.parse("1990-01-01"));
 
-        ReflectionTestUtils.setField(userController, "users", new HashMap<>());
-        ReflectionTestUtils.setField(userController, "userCurrentId", 1L);
+        ReflectionTestUtils.setField(userController, "userStorage", new InMemoryUserStorage());
+        ReflectionTestUtils.setField(userController, "friendStorage", new InMemoryFriendStorage());
     }
 
     @Test
@@ -78,6 +82,404 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].login", is("login")));
     }
 
+    @Test
+    void testUserController_getUser_ShouldReturnUserWithEtag() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.version", is(1)));
+    }
+
+    @Test
+    void testUserController_updateUser_WithIfMatch_ShouldCompareVersions() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+        validUserDto.setName("changed");
+
+        mockMvc.perform(put("/users")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validUserDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""));
+        mockMvc.perform(put("/users")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validUserDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUserController_updateUser_WithIfMatchOnMissingUser_ShouldReturnPreconditionFailed() throws Exception {
+        validUserDto.setId(42L);
+
+        mockMvc.perform(put("/users")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validUserDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUserController_updateUser_WithStaleBodyVersion_ShouldReturnConflict() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+        mockMvc.perform(put("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+        validUserDto.setVersion(1L);
+
+        mockMvc.perform(put("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validUserDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("User with id 1 has version 2, expected 1")));
+    }
+
+    @Test
+    void testUserController_getUser_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+
+        mockMvc.perform(get("/users/1").header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testUserController_getUser_AfterUserUpdated_ShouldChangeEtag() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+        validUserDto.setName("changed");
+        mockMvc.perform(put("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+
+        mockMvc.perform(get("/users/1").header("If-None-Match", "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.name", is("changed")));
+    }
+
+    @Test
+    void testUserController_getUser_WhenUserIsMissing_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/users/42"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUserController_addUser_WithTakenEmailInOtherCase_ShouldReturnConflict() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+        UserDto duplicate = uniqueCopy(validUserDto, "other");
+        duplicate.setEmail("USER@example.com");
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("User with email user@example.com already exists")));
+        mockMvc.perform(get("/users"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void testUserController_addUser_WithTakenLogin_ShouldReturnConflict() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validUserDto)));
+        UserDto duplicate = uniqueCopy(validUserDto, "login");
+        duplicate.setEmail("other@example.com");
+
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("User with login login already exists")));
+    }
+
+    @Test
+    void testUserController_updateUser_ToTakenLogin_ShouldReturnConflictAndKeepUser() throws Exception {
+        addUsers(2);
+        UserDto update = uniqueCopy(validUserDto, "added1");
+        update.setId(1L);
+
+        mockMvc.perform(put("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/users/by-login/added0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void testUserController_getUserByLogin_AfterLoginChanged_ShouldFindOnlyNewLogin() throws Exception {
+        addUsers(1);
+        UserDto update = uniqueCopy(validUserDto, "renamed");
+        update.setId(1L);
+        mockMvc.perform(put("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)));
+
+        mockMvc.perform(get("/users/by-login/renamed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.login", is("renamed")));
+        mockMvc.perform(get("/users/by-login/added0"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUserController_getUserByLogin_WithLoginFriends_ShouldNotClashWithFriendsPath() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(uniqueCopy(validUserDto, "friends"))));
+
+        mockMvc.perform(get("/users/by-login/friends"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login", is("friends")));
+    }
+
+    @Test
+    void testUserController_addFriend_ShouldBeMutual() throws Exception {
+        addUsers(2);
+
+        mockMvc.perform(put("/users/1/friends/2")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/1/friends"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(2)));
+        mockMvc.perform(get("/users/2/friends"))
+                .andExpect(jsonPath("$[*].id", contains(1)));
+    }
+
+    @Test
+    void testUserController_removeFriend_ShouldRemoveBothSides() throws Exception {
+        addUsers(2);
+        mockMvc.perform(put("/users/1/friends/2")).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/users/2/friends/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/1/friends")).andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/users/2/friends")).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void testUserController_getCommonFriends_ShouldReturnIntersection() throws Exception {
+        addUsers(5);
+        mockMvc.perform(put("/users/1/friends/3"));
+        mockMvc.perform(put("/users/1/friends/4"));
+        mockMvc.perform(put("/users/1/friends/5"));
+        mockMvc.perform(put("/users/2/friends/5"));
+        mockMvc.perform(put("/users/2/friends/3"));
+
+        mockMvc.perform(get("/users/1/friends/common/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(3, 5)));
+    }
+
+    @Test
+    void testUserController_addFriend_WhenUserIsMissing_ShouldReturnNotFound() throws Exception {
+        addUsers(1);
+
+        mockMvc.perform(put("/users/1/friends/42")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/42/friends")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/1/friends/common/42")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUserController_addFriend_WithHimself_ShouldReturnBadRequest() throws Exception {
+        addUsers(1);
+
+        mockMvc.perform(put("/users/1/friends/1")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUserController_getRecommendations_ShouldRankFriendsOfFriendsByMutualCount() throws Exception {
+        addUsers(5);
+        mockMvc.perform(put("/users/1/friends/2"));
+        mockMvc.perform(put("/users/1/friends/3"));
+        mockMvc.perform(put("/users/2/friends/4"));
+        mockMvc.perform(put("/users/2/friends/5"));
+        mockMvc.perform(put("/users/3/friends/5"));
+
+        mockMvc.perform(get("/users/1/recommendations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(5, 4)));
+
+        mockMvc.perform(put("/users/1/friends/5"));
+
+        mockMvc.perform(get("/users/1/recommendations"))
+                .andExpect(jsonPath("$[*].id", contains(4)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "1001"})
+    void testUserController_getRecommendations_WithInvalidCount_ShouldReturnBadRequest(String count) throws Exception {
+        addUsers(1);
+
+        mockMvc.perform(get("/users/1/recommendations").param("count", count))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUserController_getUsers_WithLimit_ShouldReturnPagesByCursor() throws Exception {
+        addUsers(3);
+
+        mockMvc.perform(get("/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, "2"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+
+        mockMvc.perform(get("/users").param("limit", "2").param("after", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 1001})
+    void testUserController_getUsers_WithInvalidLimit_ShouldReturnBadRequest(int limit) throws Exception {
+        mockMvc.perform(get("/users").param("limit", String.valueOf(limit)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUserController_streamUsers_ShouldWriteNdjson() throws Exception {
+        addUsers(3);
+
+        var result = mockMvc.perform(get("/users").param("after", "1").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(3L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testUserController_importUsers_ShouldUpsertAndReportPerItemStatus() throws Exception {
+        addUsers(1);
+
+        UserDto update = copyOf(validUserDto);
+        update.setId(1L);
+        update.setName("updated");
+        UserDto newUser = uniqueCopy(validUserDto, "new");
+        UserDto invalid = copyOf(validUserDto);
+        invalid.setEmail("invalid-email");
+        UserDto unknownId = uniqueCopy(validUserDto, "unknown");
+        unknownId.setId(999L);
+        UserDto takenLogin = uniqueCopy(validUserDto, "new");
+        takenLogin.setEmail("other@example.com");
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserDto[]{update, newUser, invalid, unknownId, takenLogin})))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].status", is("UPDATED")))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].id", is(2)))
+                .andExpect(jsonPath("$[2].status", is("INVALID")))
+                .andExpect(jsonPath("$[3].status", is("CREATED")))
+                .andExpect(jsonPath("$[3].id", is(3)))
+                .andExpect(jsonPath("$[4].status", is("CONFLICT")))
+                .andExpect(jsonPath("$[4].id").doesNotExist());
+
+        mockMvc.perform(get("/users"))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].name", is("updated")));
+    }
+
+    @Test
+    void testUserController_importUsers_WithNdjson_ShouldCreateUsers() throws Exception {
+        String first = objectMapper.writeValueAsString(uniqueCopy(validUserDto, "first"));
+        String second = objectMapper.writeValueAsString(uniqueCopy(validUserDto, "second"));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(first + "\n" + second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].id", is(2)));
+    }
+
+    @Test
+    void testUserController_importUsers_WithNullItems_ShouldReportThemInvalid() throws Exception {
+        addUsers(1);
+        UserDto update = uniqueCopy(validUserDto, "updated");
+        update.setId(1L);
+        String updateJson = objectMapper.writeValueAsString(update);
+        String newUserJson = objectMapper.writeValueAsString(uniqueCopy(validUserDto, "new"));
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + updateJson + ", null, " + newUserJson + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status", is("UPDATED")))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is("INVALID")))
+                .andExpect(jsonPath("$[2].status", is("CREATED")))
+                .andExpect(jsonPath("$[2].id", is(2)));
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("null\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("INVALID")));
+    }
+
+    private UserDto copyOf(UserDto source) {
+        UserDto copy = new UserDto();
+        copy.setId(source.getId());
+        copy.setEmail(source.getEmail());
+        copy.setLogin(source.getLogin());
+        copy.setName(source.getName());
+        copy.setBirthday(source.getBirthday());
+        return copy;
+    }
+
+    private void addUsers(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(post("/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(uniqueCopy(validUserDto, "added" + addedUsers++))));
+        }
+    }
+
+    private UserDto uniqueCopy(UserDto source, String login) {
+        UserDto copy = copyOf(source);
+        copy.setId(null);
+        copy.setLogin(login);
+        copy.setEmail(login + "@example.com");
+        return copy;
+    }
+
     @Test
     void testUserController_addUser_WithoutId_ShouldGenerateNewId() throws Exception {
         validUserDto.setId(null);
@@ -92,7 +494,7 @@ public class UserControllerTest {
         secondUser.setEmail("second@example.com");
         secondUser.setLogin("secondLogin");
         secondUser.setName("Second User");
-        secondUser.setBirthday(dateFormat.parse("1995-01-01"));
+        secondUser.setBirthday(LocalDate.parse("1995-01-01"));
 
         mockMvc.perform(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -112,7 +514,7 @@ public class UserControllerTest {
         duplicateUser.setEmail("duplicate@example.com");
         duplicateUser.setLogin("duplicateLogin");
         duplicateUser.setName("Duplicate User");
-        duplicateUser.setBirthday(dateFormat.parse("2000-01-01"));
+        duplicateUser.setBirthday(LocalDate.parse("2000-01-01"));
 
         mockMvc.perform(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -131,8 +533,7 @@ public class UserControllerTest {
         validUserDto.setEmail("updated@example.com");
         validUserDto.setLogin("updatedLogin");
         validUserDto.setName("Updated Name");
-        validUserDto.setBirthday(dateFormat.parse("1985-01-01"));
-        validUserDto.setBirthday(new Date(validUserDto.getBirthday().getTime() + 30000000));
+        validUserDto.setBirthday(LocalDate.parse("1985-01-01"));
 
         mockMvc.perform(put("/users")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -187,7 +588,7 @@ public class UserControllerTest {
         existingUser.setEmail("existing@example.com");
         existingUser.setLogin("existingLogin");
         existingUser.setName("Existing User");
-        existingUser.setBirthday(dateFormat.parse("1990-01-01"));
+        existingUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         mockMvc.perform(post("/users")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -273,15 +674,14 @@ public class UserControllerTest {
             "2024-02-14"
     })
     void testUserController_addUser_WithValidBirthdays_ShouldSucceed(String dateString) throws Exception {
-        Date birthday = dateFormat.parse(dateString);
+        LocalDate birthday = LocalDate.parse(dateString);
         validUserDto.setBirthday(birthday);
-        validUserDto.setBirthday(new Date(validUserDto.getBirthday().getTime() + 30000000));
 
         mockMvc.perform(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validUserDto)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.birthday", is(dateFormat.format(birthday))));
+                .andExpect(jsonPath("$.birthday", is(dateString)));
     }
 
     @ParameterizedTest
@@ -291,7 +691,7 @@ public class UserControllerTest {
             "2030-06-15"
     })
     void testUserController_addUser_WithInvalidBirthdays_ShouldReject(String dateString) throws Exception {
-        Date birthday = dateFormat.parse(dateString);
+        LocalDate birthday = LocalDate.parse(dateString);
         validUserDto.setBirthday(birthday);
 
         mockMvc.perform(post("/users")
@@ -333,56 +733,54 @@ public class UserControllerTest {
     }
 
     private static Stream<Arguments> invalidUserProvider() throws Exception {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-
         UserDto nullEmailUser = new UserDto();
         nullEmailUser.setId(2L);
         nullEmailUser.setEmail(null);
         nullEmailUser.setLogin("login");
         nullEmailUser.setName("Test User");
-        nullEmailUser.setBirthday(dateFormat.parse("1990-01-01"));
+        nullEmailUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         UserDto emptyEmailUser = new UserDto();
         emptyEmailUser.setId(3L);
         emptyEmailUser.setEmail("");
         emptyEmailUser.setLogin("login");
         emptyEmailUser.setName("Test User");
-        emptyEmailUser.setBirthday(dateFormat.parse("1990-01-01"));
+        emptyEmailUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         UserDto invalidEmailUser = new UserDto();
         invalidEmailUser.setId(4L);
         invalidEmailUser.setEmail("invalid-email");
         invalidEmailUser.setLogin("login");
         invalidEmailUser.setName("Test User");
-        invalidEmailUser.setBirthday(dateFormat.parse("1990-01-01"));
+        invalidEmailUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         UserDto nullLoginUser = new UserDto();
         nullLoginUser.setId(5L);
         nullLoginUser.setEmail("user@example.com");
         nullLoginUser.setLogin(null);
         nullLoginUser.setName("Test User");
-        nullLoginUser.setBirthday(dateFormat.parse("1990-01-01"));
+        nullLoginUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         UserDto emptyLoginUser = new UserDto();
         emptyLoginUser.setId(6L);
         emptyLoginUser.setEmail("user@example.com");
         emptyLoginUser.setLogin("");
         emptyLoginUser.setName("Test User");
-        emptyLoginUser.setBirthday(dateFormat.parse("1990-01-01"));
+        emptyLoginUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         UserDto whitespaceLoginUser = new UserDto();
         whitespaceLoginUser.setId(7L);
         whitespaceLoginUser.setEmail("user@example.com");
         whitespaceLoginUser.setLogin("login with spaces");
         whitespaceLoginUser.setName("Test User");
-        whitespaceLoginUser.setBirthday(dateFormat.parse("1990-01-01"));
+        whitespaceLoginUser.setBirthday(LocalDate.parse("1990-01-01"));
 
         UserDto futureBirthdayUser = new UserDto();
         futureBirthdayUser.setId(8L);
         futureBirthdayUser.setEmail("user@example.com");
         futureBirthdayUser.setLogin("login");
         futureBirthdayUser.setName("Test User");
-        futureBirthdayUser.setBirthday(dateFormat.parse("2126-01-01"));
+        futureBirthdayUser.setBirthday(LocalDate.parse("2126-01-01"));
 
         return Stream.of(
                 Arguments.of(nullEmailUser),
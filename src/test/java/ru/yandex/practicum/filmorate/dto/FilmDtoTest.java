@@ -10,8 +10,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -45,57 +44,61 @@ public class FilmDtoTest {
 
     @ParameterizedTest(name = "Дата релиза: {0} -> должна быть невалидной")
     @MethodSource("provideInvalidDates")
-    void testFilmDtoValidation_whenReleaseDateIsInvalid(Date invalidDate) {
+    void testFilmDtoValidation_whenReleaseDateIsInvalid(LocalDate invalidDate) {
         film.setReleaseDate(invalidDate);
 
         Set<ConstraintViolation<FilmDto>> violations = validator.validate(film);
 
         assertFalse(violations.isEmpty());
         assertTrue(violations.stream()
-                .anyMatch(v -> v.getMessage().equals("Фильм выпущен не ранее 18.12.1895")));
+                .anyMatch(v -> v.getPropertyPath().toString().equals("releaseDate")
+                        && v.getMessage().equals("Фильм выпущен не ранее 28.12.1895")));
         assertEquals(1, violations.size());
     }
 
     @ParameterizedTest(name = "Дата релиза: {0} -> должна быть валидной")
     @MethodSource("provideValidDates")
-    void testFilmDtoValidation_whenReleaseDateIsValid(Date validDate) {
+    void testFilmDtoValidation_whenReleaseDateIsValid(LocalDate validDate) {
         film.setReleaseDate(validDate);
 
         Set<ConstraintViolation<FilmDto>> violations = validator.validate(film);
 
-        assertTrue(violations.stream()
-                .noneMatch(v -> v.getPropertyPath().toString().equals("releaseDate")));
+        assertTrue(violations.isEmpty());
     }
 
-    private static Stream<Date> provideInvalidDates() {
-        return Stream.of(
-                createDate(1895, Calendar.DECEMBER, 27),
-                createDate(1895, Calendar.DECEMBER, 26),
-                createDate(1895, Calendar.NOVEMBER, 1),
-                createDate(1800, Calendar.JANUARY, 1),
-                createDate(1000, Calendar.JUNE, 15),
-                createDate(1894, Calendar.DECEMBER, 31)
-        );
+    @ParameterizedTest
+    @NullSource
+    void testFilmDtoValidation_whenReleaseDateIsNull_ShouldReportOnlyNotNull(LocalDate releaseDate) {
+        film.setReleaseDate(releaseDate);
+
+        Set<ConstraintViolation<FilmDto>> violations = validator.validate(film);
+
+        assertEquals(1, violations.size());
+        assertEquals("Дата релиза не может быть null", violations.iterator().next().getMessage());
     }
 
-    private static Stream<Date> provideValidDates() {
+    private static Stream<LocalDate> provideInvalidDates() {
         return Stream.of(
-                createDate(1895, Calendar.DECEMBER, 28),
-                createDate(1895, Calendar.DECEMBER, 29),
-                createDate(1895, Calendar.DECEMBER, 30),
-                createDate(1895, Calendar.DECEMBER, 31),
-                createDate(1896, Calendar.JANUARY, 1),
-                createDate(1900, Calendar.JANUARY, 1),
-                createDate(2000, Calendar.JANUARY, 1),
-                createDate(2024, Calendar.FEBRUARY, 14)
+                LocalDate.of(1895, 12, 27),
+                LocalDate.of(1895, 12, 26),
+                LocalDate.of(1895, 11, 1),
+                LocalDate.of(1800, 1, 1),
+                LocalDate.of(1000, 6, 15),
+                LocalDate.of(1894, 12, 31)
         );
     }
 
-    private static Date createDate(int year, int month, int day) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(year, month - 1, day, 0, 0, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        return calendar.getTime();
+    private static Stream<LocalDate> provideValidDates() {
+        return Stream.of(
+                LocalDate.of(1895, 12, 28),
+                LocalDate.of(1895, 12, 29),
+                LocalDate.of(1895, 12, 30),
+                LocalDate.of(1895, 12, 31),
+                LocalDate.of(1896, 1, 1),
+                LocalDate.of(1900, 1, 1),
+                LocalDate.of(2000, 1, 1),
+                LocalDate.of(2024, 2, 14)
+        );
     }
 
     @ParameterizedTest
@@ -123,7 +126,7 @@ public class FilmDtoTest {
         film.setId(1L);
         film.setName("film");
         film.setDescription("description");
-        film.setReleaseDate(new Date());
+        film.setReleaseDate(LocalDate.now());
         film.setDuration(120);
         return film;
     }
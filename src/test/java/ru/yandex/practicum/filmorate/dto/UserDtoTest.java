@@ -9,9 +9,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -125,7 +123,7 @@ public class UserDtoTest {
 
     @ParameterizedTest
     @MethodSource("provideInvalidBirthdays")
-    void testUserDtoValidation_whenBirthdayIsInvalid(Date invalidBirthday) {
+    void testUserDtoValidation_whenBirthdayIsInvalid(LocalDate invalidBirthday) {
         user.setBirthday(invalidBirthday);
 
         Set<ConstraintViolation<UserDto>> violations = validator.validate(user);
@@ -141,7 +139,7 @@ public class UserDtoTest {
 
     @ParameterizedTest
     @MethodSource("provideValidBirthdays")
-    void testUserDtoValidation_whenBirthdayIsValid(Date validBirthday) {
+    void testUserDtoValidation_whenBirthdayIsValid(LocalDate validBirthday) {
         user.setBirthday(validBirthday);
 
         Set<ConstraintViolation<UserDto>> violations = validator.validate(user);
@@ -150,7 +148,7 @@ public class UserDtoTest {
                 .noneMatch(v -> v.getPropertyPath().toString().equals("birthday")));
     }
 
-    private static Stream<Date> provideValidBirthdays() {
+    private static Stream<LocalDate> provideValidBirthdays() {
         return Stream.of(
                 getDate(2000, 1, 1),
                 getDate(1995, 5, 15),
@@ -160,7 +158,7 @@ public class UserDtoTest {
         );
     }
 
-    private static Stream<Date> provideInvalidBirthdays() {
+    private static Stream<LocalDate> provideInvalidBirthdays() {
         return Stream.of(
                 getDate(2126, 1, 1),
                 getDate(2030, 12, 31),
@@ -169,14 +167,8 @@ public class UserDtoTest {
         );
     }
 
-    private static Date getDate(int year, int month, int day) {
-        try {
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-            return dateFormat.parse(String.format("%d-%02d-%02d", year, month, day));
-        } catch (ParseException e) {
-            fail("Failed to parse date: " + e.getMessage());
-            return null;
-        }
+    private static LocalDate getDate(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
     }
 
     private UserDto createValidUser() {
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.IndexNotReadyException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackgroundIndexBuildTest {
+
+    @Test
+    void testAwait_whenBuildFails_ShouldThrowIndexNotReady() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage() {
+            @Override
+            public List<Film> findPage(long afterId, int limit) {
+                throw new IllegalStateException("storage is down");
+            }
+        };
+
+        BackgroundIndexBuild build = BackgroundIndexBuild.start("test-index", storage, page -> {
+        }, TimeUnit.MINUTES.toMillis(1));
+
+        assertThrows(IndexNotReadyException.class, build::await);
+        assertFalse(build.isReady());
+    }
+
+    @Test
+    void testAwait_whenBuildFailsOnce_ShouldRetryAndIndexAllFilms() throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger(1);
+        InMemoryFilmStorage storage = new InMemoryFilmStorage() {
+            @Override
+            public List<Film> findPage(long afterId, int limit) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("transient failure");
+                }
+                return super.findPage(afterId, limit);
+            }
+        };
+        storage.add(film("stored"));
+        List<Film> indexed = new CopyOnWriteArrayList<>();
+
+        BackgroundIndexBuild build = BackgroundIndexBuild.start("test-index", storage, indexed::addAll, 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!build.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(build.isReady());
+        build.await();
+        assertEquals(List.of("stored"), indexed.stream().map(Film::getName).toList());
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription(name);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(100);
+        return film;
+    }
+
+}
@@ -0,0 +1,193 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingFilmStorageTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private InMemoryFilmStorage delegate;
+    private CachingFilmStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemoryFilmStorage();
+        storage = new CachingFilmStorage(delegate, 2, Duration.ofMinutes(1), nanos::get, Runnable::run);
+    }
+
+    @Test
+    void testFindById_whenFilmWasNotCached_ShouldLoadOnceAndThenHit() {
+        Film film = delegate.add(film(null));
+
+        assertSame(film, storage.findById(film.getId()).orElseThrow());
+        assertSame(film, storage.findById(film.getId()).orElseThrow());
+
+        assertEquals(1, storage.stats().missCount());
+        assertEquals(1, storage.stats().hitCount());
+    }
+
+    @Test
+    void testBindTo_ShouldPublishCacheStatsAsMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        storage.bindTo(registry);
+        Film film = delegate.add(film(null));
+
+        storage.findById(film.getId());
+        storage.findById(film.getId());
+
+        assertEquals(1, registry.get("cache.gets").tags("cache", "films", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "films", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testAdd_ShouldWriteThroughToCache() {
+        Film film = storage.add(film(null));
+
+        assertTrue(delegate.findById(film.getId()).isPresent());
+        assertSame(film, storage.findById(film.getId()).orElseThrow());
+        assertEquals(0, storage.stats().missCount());
+    }
+
+    @Test
+    void testFindById_whenFilmIsMissing_ShouldNotCacheAbsence() {
+        assertFalse(storage.findById(1L).isPresent());
+
+        Film film = delegate.add(film(null));
+
+        assertSame(film, storage.findById(1L).orElseThrow());
+    }
+
+    @Test
+    void testUpdate_ShouldWriteNewVersionThroughToCache() {
+        Film film = storage.add(film(null));
+        Film changed = film(film.getId());
+        changed.setName("changed");
+
+        storage.update(changed);
+
+        assertEquals("changed", storage.findById(film.getId()).orElseThrow().getName());
+        assertEquals(0, storage.stats().missCount());
+    }
+
+    @Test
+    void testFindPage_whenFilmUpdatedDuringRead_ShouldNotCacheOldVersion() {
+        AtomicReference<Runnable> duringCall = new AtomicReference<>();
+        InMemoryFilmStorage racing = racing(duringCall);
+        storage = new CachingFilmStorage(racing, 10, Duration.ofMinutes(1), nanos::get, Runnable::run);
+        Film film = storage.add(film(null));
+        film.setName("old");
+        Film changed = film(film.getId());
+        changed.setName("new");
+        duringCall.set(() -> storage.update(changed));
+
+        assertEquals("old", storage.findPage(0, 10).get(0).getName());
+
+        assertEquals("new", racing.findById(film.getId()).orElseThrow().getName());
+        assertEquals("new", storage.findById(film.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testAdd_whenFilmUpdatedBeforeAddReturns_ShouldKeepNewerVersion() {
+        AtomicReference<Runnable> duringCall = new AtomicReference<>();
+        storage = new CachingFilmStorage(racing(duringCall), 10, Duration.ofMinutes(1), nanos::get, Runnable::run);
+        Film changed = film(1L);
+        changed.setName("changed");
+        duringCall.set(() -> storage.update(changed));
+
+        storage.add(film(null));
+
+        assertSame(changed, storage.findById(1L).orElseThrow());
+    }
+
+    @Test
+    void testUpdate_whenFilmIsMissing_ShouldThrowAndKeepCacheConsistent() {
+        assertThrows(NoFilmFoundException.class, () -> storage.update(film(42L)));
+        assertFalse(storage.findById(42L).isPresent());
+    }
+
+    @Test
+    void testCache_whenMaximumSizeExceeded_ShouldEvict() {
+        storage.addAll(List.of(film(null), film(null), film(null)));
+        storage.cleanUp();
+
+        assertEquals(2, storage.size());
+        assertEquals(1, storage.stats().evictionCount());
+    }
+
+    @Test
+    void testCache_whenEntryExpired_ShouldReloadFromDelegate() {
+        Film film = storage.add(film(null));
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        storage.findById(film.getId());
+
+        assertEquals(1, storage.stats().missCount());
+    }
+
+    @Test
+    void testContext_whenCacheEnabled_ShouldWrapSelectedStorage() {
+        new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withPropertyValues("filmorate.cache.films.enabled=true",
+                        "filmorate.cache.films.maximum-size=10",
+                        "filmorate.cache.films.expire-after-write=1m")
+                .withUserConfiguration(InMemoryFilmStorage.class, CachingFilmStorage.class)
+                .run(context -> assertThat(context.getBean(FilmStorage.class)).isInstanceOf(CachingFilmStorage.class));
+    }
+
+    /**
+     * Хранилище, которое выполняет {@code duringCall} после чтения страницы или добавления, но до возврата.
+     */
+    private static InMemoryFilmStorage racing(AtomicReference<Runnable> duringCall) {
+        return new InMemoryFilmStorage() {
+            @Override
+            public List<Film> findPage(long afterId, int limit) {
+                List<Film> page = super.findPage(afterId, limit);
+                runHook();
+                return page;
+            }
+
+            @Override
+            public Film add(Film film) {
+                Film added = super.add(film);
+                runHook();
+                return added;
+            }
+
+            private void runHook() {
+                Runnable hook = duringCall.getAndSet(null);
+                if (hook != null) {
+                    hook.run();
+                }
+            }
+        };
+    }
+
+    private static Film film(Long id) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName("film");
+        film.setDuration(100);
+        return film;
+    }
+
+}
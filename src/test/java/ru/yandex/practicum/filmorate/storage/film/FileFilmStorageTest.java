@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class FileFilmStorageTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testRestart_ShouldRestoreFilmsAndIdSequence() throws IOException {
+        FileFilmStorage storage = new FileFilmStorage(dataDir, 2);
+        storage.add(film("first"));
+        storage.addAll(List.of(film("second"), film("third")));
+        Film updated = film("first edited");
+        updated.setId(1L);
+        storage.update(updated);
+        storage.close();
+
+        FileFilmStorage restarted = new FileFilmStorage(dataDir, 2);
+
+        assertEquals(List.of("first edited", "second", "third"),
+                restarted.findAll().stream().map(Film::getName).toList());
+        assertEquals(4L, restarted.add(film("fourth")).getId());
+        restarted.close();
+    }
+
+    @Test
+    void testRestart_ShouldRestoreAllFilmFields() throws IOException {
+        FileFilmStorage storage = new FileFilmStorage(dataDir, 1_000);
+        Film film = film("Фильм");
+        film.setDescription("описание");
+        film.setReleaseDate(LocalDate.of(1906, 8, 16));
+        storage.add(film);
+        storage.add(film("no description"));
+        storage.update(film);
+        storage.close();
+
+        FileFilmStorage restarted = new FileFilmStorage(dataDir, 1_000);
+        Film restored = restarted.findById(1L).orElseThrow();
+
+        assertEquals("Фильм", restored.getName());
+        assertEquals("описание", restored.getDescription());
+        assertEquals(film.getReleaseDate(), restored.getReleaseDate());
+        assertEquals(100, restored.getDuration());
+        assertEquals(2, restored.getVersion());
+        assertNull(restarted.findById(2L).orElseThrow().getDescription());
+        restarted.close();
+    }
+
+    @Test
+    void testCrash_ShouldRestoreFromLogWithoutSnapshot() throws IOException {
+        FileFilmStorage storage = new FileFilmStorage(dataDir, 1_000);
+        storage.add(film("first"));
+        storage.add(film("second"));
+
+        FileFilmStorage restarted = new FileFilmStorage(dataDir, 1_000);
+
+        assertEquals(2, restarted.findAll().size());
+        restarted.close();
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDuration(100);
+        return film;
+    }
+
+}
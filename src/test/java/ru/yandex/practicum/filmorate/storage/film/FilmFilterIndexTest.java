@@ -0,0 +1,140 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilmFilterIndexTest {
+
+    private FilmFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FilmFilterIndex();
+    }
+
+    @Test
+    void testToEpochDay_ShouldHandleDatesBeforeEpoch() {
+        assertEquals(0, FilmFilterIndex.toEpochDay(LocalDate.of(1970, 1, 1)));
+        assertEquals(-1, FilmFilterIndex.toEpochDay(LocalDate.of(1969, 12, 31)));
+        assertEquals(-25_571, FilmFilterIndex.toEpochDay(LocalDate.of(1899, 12, 28)));
+    }
+
+    @Test
+    void testToEpochDay_whenOutOfIntRange_ShouldClamp() {
+        assertEquals(Integer.MIN_VALUE, FilmFilterIndex.toEpochDay(LocalDate.MIN));
+        assertEquals(Integer.MAX_VALUE, FilmFilterIndex.toEpochDay(LocalDate.MAX));
+    }
+
+    @Test
+    void testFind_ShouldIntersectRangesAndSortIds() {
+        index.index(film(5, -10, 90));
+        index.index(film(2, 0, 120));
+        index.index(film(9, 5, 120));
+        index.index(film(4, 5, 200));
+
+        assertArrayEquals(new long[]{2, 4, 9},
+                index.find(0, 5, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{2, 9}, index.find(-100, 100, 100, 150, 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{5}, index.find(Integer.MIN_VALUE, -1, 0, 1000, 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[0], index.find(6, 100, 0, 1000, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testFind_withCursor_ShouldReturnNextPageOfSmallestIds() {
+        index.index(film(5, -10, 90));
+        index.index(film(2, 0, 120));
+        index.index(film(9, 5, 120));
+        index.index(film(4, 5, 200));
+
+        assertArrayEquals(new long[]{2, 4}, index.find(0, 5, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 2));
+        assertArrayEquals(new long[]{9}, index.find(0, 5, Integer.MIN_VALUE, Integer.MAX_VALUE, 4, 2));
+        assertArrayEquals(new long[0], index.find(0, 5, Integer.MIN_VALUE, Integer.MAX_VALUE, 9, 2));
+    }
+
+    @Test
+    void testFind_whenPagingThroughBroadAndNarrowRanges_ShouldReturnEveryMatchOnce() {
+        List<Film> films = new ArrayList<>();
+        for (int id = 1; id <= 1_000; id++) {
+            films.add(film(id, id % 10, 100 + id % 3));
+        }
+        index.indexAll(films);
+
+        // широкий диапазон проходится обходом по id, узкий — отбором из кандидатов индекса
+        assertArrayEquals(LongStream.rangeClosed(1, 1_000).filter(id -> id % 10 <= 8).toArray(),
+                readAllPages(0, 8, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertArrayEquals(LongStream.rangeClosed(1, 1_000).filter(id -> id % 10 == 3 && id % 3 == 1).toArray(),
+                readAllPages(3, 3, 101, 101));
+    }
+
+    @Test
+    void testIndex_whenFilmChanges_ShouldMoveItBetweenKeys() {
+        index.index(film(1, 0, 100));
+        index.index(film(1, 10, 100));
+
+        assertArrayEquals(new long[0], index.find(0, 0, 0, 1000, 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{1}, index.find(10, 10, 100, 100, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testIndexAll_whenOlderVersionArrivesLate_ShouldKeepNewerValues() {
+        Film newer = film(1, 10, 120);
+        newer.setVersion(3);
+        Film older = film(1, 0, 100);
+        older.setVersion(2);
+
+        index.index(newer);
+        index.indexAll(List.of(older));
+
+        assertArrayEquals(new long[0], index.find(0, 0, 0, 1000, 0, Integer.MAX_VALUE));
+        assertArrayEquals(new long[]{1}, index.find(10, 10, 120, 120, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testConstructor_ShouldIndexFilmsAlreadyInStorage() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        Film stored = film(0, 10, 100);
+        stored.setId(null);
+        storage.add(stored);
+
+        FilmFilterIndex index = new FilmFilterIndex(storage);
+
+        assertArrayEquals(new long[]{1}, index.find(10, 10, 100, 100, 0, Integer.MAX_VALUE));
+        assertTrue(index.isReady());
+    }
+
+    private long[] readAllPages(int fromDay, int toDay, int minDuration, int maxDuration) {
+        List<Long> ids = new ArrayList<>();
+        long after = 0;
+        long[] page;
+        do {
+            page = index.find(fromDay, toDay, minDuration, maxDuration, after, 7);
+            for (long id : page) {
+                ids.add(id);
+            }
+            if (page.length > 0) {
+                after = page[page.length - 1];
+            }
+        } while (page.length == 7);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Film film(long id, int epochDay, int duration) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName("film");
+        film.setReleaseDate(LocalDate.ofEpochDay(epochDay));
+        film.setDuration(duration);
+        return film;
+    }
+
+}
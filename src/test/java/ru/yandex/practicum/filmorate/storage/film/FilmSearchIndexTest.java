@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilmSearchIndexTest {
+
+    private FilmSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FilmSearchIndex();
+    }
+
+    @Test
+    void testTokenize_ShouldSplitOnPunctuationAndFoldCase() {
+        assertEquals(List.of("еж", "и", "туман", "1975"), FilmSearchIndex.tokenize("Ёж и Туман (1975)"));
+        assertEquals(List.of("hello", "world"), FilmSearchIndex.tokenize("  HELLO,world!  "));
+    }
+
+    @Test
+    void testSearch_ShouldRequireAllWordsAndRankByWeight() {
+        index.index(film(1, "Star wars", "space opera"));
+        index.index(film(2, "Wars", "star crossed lovers and more star stuff"));
+        index.index(film(3, "Star", "no conflict here"));
+
+        assertEquals(List.of(1L, 2L), index.search("star wars", 10));
+        assertEquals(List.of(1L, 3L, 2L), index.search("star", 10));
+        assertEquals(List.of(1L), index.search("star", 1));
+    }
+
+    @Test
+    void testSearch_whenLastWordIsPrefix_ShouldMatchTypeahead() {
+        index.index(film(1, "Ёжик в тумане", null));
+        index.index(film(2, "Туманность Андромеды", null));
+
+        assertEquals(List.of(1L, 2L), index.search("тума", 10));
+        assertEquals(List.of(1L), index.search("ежик тум", 10));
+        assertEquals(List.of(), index.search("ежи тум", 10));
+    }
+
+    @Test
+    void testIndex_whenFilmIsReindexed_ShouldDropOldTerms() {
+        index.index(film(1, "Old title", null));
+        index.index(film(1, "New title", null));
+
+        assertEquals(List.of(), index.search("old", 10));
+        assertEquals(List.of(1L), index.search("title", 10));
+    }
+
+    @Test
+    void testIndex_whenOlderVersionArrivesLate_ShouldKeepNewerTerms() {
+        Film newer = film(1, "New title", null);
+        newer.setVersion(3);
+        Film older = film(1, "Old title", null);
+        older.setVersion(2);
+
+        index.index(newer);
+        index.index(older);
+
+        assertEquals(List.of(), index.search("old", 10));
+        assertEquals(List.of(1L), index.search("new", 10));
+    }
+
+    @Test
+    void testConstructor_ShouldIndexFilmsAlreadyInStorage() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        storage.add(film(0, "Stored film", null));
+
+        FilmSearchIndex index = new FilmSearchIndex(storage);
+
+        assertEquals(List.of(1L), index.search("stored", 10));
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void testPostings_whenManyIdsRemoved_ShouldKeepOthersReachable() {
+        Postings postings = new Postings();
+        for (long id = 1; id <= 1_000; id++) {
+            postings.put(id, (int) id);
+        }
+        for (long id = 1; id <= 1_000; id += 2) {
+            postings.remove(id);
+        }
+
+        assertEquals(500, postings.size());
+        for (long id = 1; id <= 1_000; id++) {
+            assertEquals(id % 2 == 0 ? (int) id : 0, postings.get(id));
+        }
+    }
+
+    @Test
+    void testSearch_whenPrefixHasManyTerms_ShouldKeepMostFrequentOnes() {
+        // 70 редких термов «st000»..«st069» стоят в словаре раньше частого «story»
+        for (int i = 0; i < 70; i++) {
+            index.index(film(i + 1, String.format("st%03d", i), null));
+        }
+        index.index(film(71, "Story", null));
+        index.index(film(72, "Story", null));
+        index.index(film(73, "Story", null));
+
+        List<Long> found = index.search("st", 100);
+
+        assertTrue(found.containsAll(List.of(71L, 72L, 73L)));
+        assertEquals(List.of(5L), index.search("st004", 10));
+    }
+
+    private static Film film(long id, String name, String description) {
+        Film film = new Film();
+        film.setId(id == 0 ? null : id);
+        film.setName(name);
+        film.setDescription(description);
+        film.setDuration(100);
+        return film;
+    }
+
+}
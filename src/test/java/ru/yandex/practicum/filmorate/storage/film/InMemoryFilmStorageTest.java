@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryFilmStorageTest {
+
+    private InMemoryFilmStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryFilmStorage();
+    }
+
+    @Test
+    void testAdd_whenIdIsEmpty_ShouldGenerateSequentialIds() {
+        assertEquals(1L, storage.add(film(null)).getId());
+        assertEquals(2L, storage.add(film(null)).getId());
+    }
+
+    @Test
+    void testAdd_whenIdIsTaken_ShouldGenerateNewId() {
+        storage.add(film(5L));
+
+        Film duplicate = storage.add(film(5L));
+
+        assertEquals(6L, duplicate.getId());
+        assertEquals(2, storage.findAll().size());
+    }
+
+    @Test
+    void testAdd_whenIdIsNotPositive_ShouldGenerateIdVisibleInPages() {
+        Film negative = storage.add(film(-5L));
+        Film zero = storage.add(film(0L));
+
+        assertEquals(1L, negative.getId());
+        assertEquals(2L, zero.getId());
+        assertEquals(List.of(1L, 2L), storage.findPage(0, 10).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void testAddAll_ShouldAllocateContiguousIdBlock() {
+        storage.add(film(null));
+
+        List<Film> added = storage.addAll(List.of(film(1L), film(null), film(null)));
+
+        assertEquals(List.of(2L, 3L, 4L), added.stream().map(Film::getId).toList());
+        assertEquals(5L, storage.add(film(null)).getId());
+    }
+
+    @Test
+    void testUpdate_ShouldIncrementVersion() {
+        Film film = storage.add(film(null));
+        assertEquals(1, film.getVersion());
+
+        Film changed = film(film.getId());
+        storage.update(changed);
+
+        assertEquals(2, changed.getVersion());
+        assertEquals(2, storage.findById(film.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testUpdate_whenFilmIsMissing_ShouldThrow() {
+        assertThrows(NoFilmFoundException.class, () -> storage.update(film(42L)));
+    }
+
+    @Test
+    void testUpdate_whenVersionIsStale_ShouldThrowAndKeepCurrentFilm() {
+        Film film = storage.add(film(null));
+        storage.update(film(film.getId()), 1);
+
+        Film stale = film(film.getId());
+        stale.setName("stale");
+        assertThrows(VersionConflictException.class, () -> storage.update(stale, 1));
+        assertThrows(NoFilmFoundException.class, () -> storage.update(film(42L), 1));
+
+        Film current = storage.findById(film.getId()).orElseThrow();
+        assertEquals("film", current.getName());
+        assertEquals(2, current.getVersion());
+    }
+
+    @Test
+    void testUpdate_whenVersionedUpdatesRace_ShouldNotLoseAny() throws Exception {
+        long id = storage.add(film(null)).getId();
+        int threads = 8;
+        int updatesPerThread = 1_000;
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        // прочитать, изменить, записать с ожидаемой версией; при конфликте — повторить
+                        while (true) {
+                            Film current = storage.findById(id).orElseThrow();
+                            Film next = film(id);
+                            next.setDuration(current.getDuration() + 1);
+                            try {
+                                storage.update(next, current.getVersion());
+                                break;
+                            } catch (VersionConflictException e) {
+                                // другой поток успел раньше
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        Film film = storage.findById(id).orElseThrow();
+        assertEquals(100 + threads * updatesPerThread, film.getDuration());
+        assertEquals(1 + threads * updatesPerThread, film.getVersion());
+    }
+
+    @Test
+    void testAdd_whenCalledConcurrently_ShouldNotLoseFilmsOrDuplicateIds() throws Exception {
+        int threads = 8;
+        int filmsPerThread = 1_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < filmsPerThread; i++) {
+                        ids.add(storage.add(film(null)).getId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(threads * filmsPerThread, ids.size());
+        assertEquals(threads * filmsPerThread, storage.findAll().size());
+        assertTrue(ids.stream().allMatch(id -> storage.findById(id).isPresent()));
+    }
+
+    private static Film film(Long id) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName("film");
+        film.setDuration(100);
+        return film;
+    }
+
+}
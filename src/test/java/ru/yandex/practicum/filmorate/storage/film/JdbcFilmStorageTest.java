@@ -0,0 +1,155 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.exceptions.NoFilmFoundException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@JdbcTest
+@ActiveProfiles("jdbc")
+@Import(JdbcFilmStorage.class)
+public class JdbcFilmStorageTest {
+
+    @Autowired
+    private JdbcFilmStorage storage;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAdd_ShouldGenerateIdsAndFindById() {
+        Film first = storage.add(film("first"));
+        Film second = storage.add(film("second"));
+
+        assertEquals(first.getId() + 1, second.getId());
+        assertEquals("second", storage.findById(second.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testAdd_whenIdIsTaken_ShouldGenerateNewId() {
+        Film film = film("explicit");
+        film.setId(1_000L);
+        storage.add(film);
+
+        Film duplicate = film("duplicate");
+        duplicate.setId(1_000L);
+        storage.add(duplicate);
+
+        assertEquals(1_000L, film.getId());
+        assertEquals("explicit", storage.findById(1_000L).orElseThrow().getName());
+        assertEquals("duplicate", storage.findById(duplicate.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testAdd_whenIdIsNotPositive_ShouldGenerateIdVisibleInPages() {
+        Film negative = film("negative");
+        negative.setId(-5L);
+        storage.add(negative);
+
+        assertTrue(negative.getId() > 0);
+        assertEquals(List.of(negative.getId()), storage.findPage(0, 10).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void testAddAll_And_FindPage_ShouldUseKeysetOrder() {
+        List<Film> added = storage.addAll(List.of(film("a"), film("b"), film("c")));
+        long firstId = added.get(0).getId();
+
+        List<Film> page = storage.findPage(firstId, 2);
+
+        assertEquals(List.of("b", "c"), page.stream().map(Film::getName).toList());
+        assertEquals(3, storage.findAll().size());
+        assertEquals(3, storage.count());
+    }
+
+    @Test
+    void testAddAll_whenBlockCollidesWithExplicitId_ShouldStillInsertAll() {
+        Film explicit = film("explicit");
+        explicit.setId(storage.add(film("first")).getId() + 1);
+        storage.add(explicit);
+
+        storage.addAll(List.of(film("a"), film("b")));
+
+        assertEquals(4, storage.findAll().size());
+    }
+
+    @Test
+    void testAddAll_whenBatchFailsWithoutUpdateCounts_ShouldNotDuplicateInsertedFilms() {
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new DuplicateKeyException("batch failed without per-row results");
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        storage.addAll(new ArrayList<>(List.of(film("a"), film("b"))));
+
+        List<String> names = storage.findAll().stream().map(Film::getName).collect(Collectors.toList());
+        assertEquals(List.of("a", "b"), names);
+    }
+
+    @Test
+    void testUpdate_ShouldReplaceOrThrowWhenMissing() {
+        Film film = storage.add(film("film"));
+        film.setName("edited");
+        assertEquals(1, film.getVersion());
+        storage.update(film);
+
+        assertEquals("edited", storage.findById(film.getId()).orElseThrow().getName());
+        assertEquals(2, film.getVersion());
+        assertEquals(2, storage.findById(film.getId()).orElseThrow().getVersion());
+        assertThrows(NoFilmFoundException.class, () -> {
+            Film missing = film("missing");
+            missing.setId(999_999L);
+            storage.update(missing);
+        });
+    }
+
+    @Test
+    void testUpdate_withExpectedVersion_ShouldRejectStaleVersion() {
+        Film film = storage.add(film("film"));
+        film.setName("edited");
+        storage.update(film, 1);
+        assertEquals(2, film.getVersion());
+
+        Film stale = film("stale");
+        stale.setId(film.getId());
+        assertThrows(VersionConflictException.class, () -> storage.update(stale, 1));
+        assertEquals("edited", storage.findById(film.getId()).orElseThrow().getName());
+        assertEquals(2, storage.findById(film.getId()).orElseThrow().getVersion());
+        assertThrows(NoFilmFoundException.class, () -> {
+            Film missing = film("missing");
+            missing.setId(999_999L);
+            storage.update(missing, 1);
+        });
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("description");
+        film.setReleaseDate(LocalDate.now());
+        film.setDuration(100);
+        return film;
+    }
+
+}
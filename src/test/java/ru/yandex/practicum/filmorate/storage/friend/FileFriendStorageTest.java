@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class FileFriendStorageTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testRestart_ShouldRestoreFriendshipsInBothDirections() throws IOException {
+        FileFriendStorage storage = new FileFriendStorage(dataDir, 2);
+        storage.addFriend(1, 2);
+        storage.addFriend(3, 1);
+        storage.addFriend(2, 3);
+        storage.removeFriend(3, 2);
+        storage.close();
+
+        FileFriendStorage restarted = new FileFriendStorage(dataDir, 2);
+
+        assertArrayEquals(new long[]{2, 3}, restarted.findFriendIds(1));
+        assertArrayEquals(new long[]{1}, restarted.findFriendIds(3));
+        assertArrayEquals(new long[]{1}, restarted.findCommonFriendIds(2, 3));
+        restarted.close();
+    }
+
+    @Test
+    void testCrash_ShouldReplayRemovedFriendshipsFromLog() throws IOException {
+        FileFriendStorage storage = new FileFriendStorage(dataDir, 1_000);
+        storage.addFriend(1, 2);
+        storage.addFriend(1, 3);
+        storage.removeFriend(2, 1);
+
+        FileFriendStorage restarted = new FileFriendStorage(dataDir, 1_000);
+
+        assertArrayEquals(new long[]{3}, restarted.findFriendIds(1));
+        assertArrayEquals(new long[0], restarted.findFriendIds(2));
+        restarted.close();
+    }
+
+}
@@ -0,0 +1,159 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryFriendStorageTest {
+
+    private InMemoryFriendStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryFriendStorage();
+    }
+
+    @Test
+    void testAddFriend_ShouldKeepFriendIdsSorted() {
+        storage.addFriend(1, 5);
+        storage.addFriend(1, 3);
+        storage.addFriend(4, 1);
+
+        assertArrayEquals(new long[]{3, 4, 5}, storage.findFriendIds(1));
+        assertArrayEquals(new long[]{1}, storage.findFriendIds(3));
+    }
+
+    @Test
+    void testAddFriend_whenAlreadyFriends_ShouldReturnFalse() {
+        assertTrue(storage.addFriend(1, 2));
+        assertFalse(storage.addFriend(2, 1));
+    }
+
+    @Test
+    void testRemoveFriend_ShouldRemoveBothSides() {
+        storage.addFriend(1, 2);
+
+        assertTrue(storage.removeFriend(2, 1));
+        assertFalse(storage.removeFriend(1, 2));
+        assertEquals(0, storage.findFriendIds(1).length);
+        assertEquals(0, storage.findFriendIds(2).length);
+    }
+
+    @Test
+    void testLoad_ShouldSortFriendIdsOnceAndDropDuplicates() {
+        FriendGraphBuilder graph = new FriendGraphBuilder();
+        graph.add(1, 5);
+        graph.add(3, 1);
+        graph.add(1, 4);
+        graph.add(5, 1);
+
+        storage.load(graph);
+
+        assertArrayEquals(new long[]{3, 4, 5}, storage.findFriendIds(1));
+        assertArrayEquals(new long[]{1}, storage.findFriendIds(5));
+        assertTrue(storage.removeFriend(1, 4));
+        assertFalse(storage.addFriend(3, 1));
+    }
+
+    @Test
+    void testFindCommonFriendIds_ShouldIntersectSortedArrays() {
+        for (long friend : new long[]{2, 4, 6, 8, 10}) {
+            storage.addFriend(1, friend);
+        }
+        for (long friend : new long[]{3, 4, 5, 10, 11}) {
+            storage.addFriend(12, friend);
+        }
+
+        assertArrayEquals(new long[]{4, 10}, storage.findCommonFriendIds(1, 12));
+        assertEquals(0, storage.findCommonFriendIds(1, 99).length);
+    }
+
+    @Test
+    void testFindRecommendedIds_ShouldExcludeUserAndFriendsAndRankByMutualCount() {
+        storage.addFriend(1, 2);
+        storage.addFriend(1, 3);
+        storage.addFriend(1, 4);
+        storage.addFriend(2, 3);
+        storage.addFriend(2, 7);
+        storage.addFriend(3, 7);
+        storage.addFriend(4, 7);
+        storage.addFriend(2, 6);
+        storage.addFriend(3, 5);
+
+        assertArrayEquals(new long[]{7, 5, 6}, storage.findRecommendedIds(1, 10));
+        assertArrayEquals(new long[]{7}, storage.findRecommendedIds(1, 1));
+    }
+
+    @Test
+    void testFindRecommendedIds_whenFriendOfFriendChanges_ShouldInvalidateCachedResult() {
+        storage.addFriend(1, 2);
+        storage.addFriend(2, 3);
+        assertArrayEquals(new long[]{3}, storage.findRecommendedIds(1, 10));
+
+        storage.addFriend(2, 4);
+        assertArrayEquals(new long[]{3, 4}, storage.findRecommendedIds(1, 10));
+
+        storage.removeFriend(2, 3);
+        assertArrayEquals(new long[]{4}, storage.findRecommendedIds(1, 10));
+
+        storage.addFriend(1, 4);
+        assertEquals(0, storage.findRecommendedIds(1, 10).length);
+    }
+
+    @Test
+    void testFindRecommendedIds_whenLimitExceedsCachedSize_ShouldComputeDirectly() {
+        for (long user = 3; user < 203; user++) {
+            storage.addFriend(2, user);
+        }
+        storage.addFriend(1, 2);
+
+        assertEquals(200, storage.findRecommendedIds(1, 500).length);
+        assertEquals(100, storage.findRecommendedIds(1, 100).length);
+    }
+
+    @Test
+    void testAddAndRemoveFriend_whenCalledConcurrently_ShouldStaySymmetric() throws Exception {
+        int threads = 8;
+        int users = 50;
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        long user = (i + thread) % users;
+                        long friend = (i * 7 + thread * 3 + 1) % users;
+                        if (user == friend) {
+                            continue;
+                        }
+                        if (i % 2 == 0) {
+                            storage.addFriend(user, friend);
+                        } else {
+                            storage.removeFriend(friend, user);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        for (long user = 0; user < users; user++) {
+            for (long friend : storage.findFriendIds(user)) {
+                assertTrue(SortedLongArrays.contains(storage.findFriendIds(friend), user));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.JdbcUserStorage;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+@ActiveProfiles("jdbc")
+@Import({JdbcFriendStorage.class, JdbcUserStorage.class})
+public class JdbcFriendStorageTest {
+
+    @Autowired
+    private JdbcFriendStorage storage;
+
+    @Autowired
+    private JdbcUserStorage userStorage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long first;
+    private long second;
+    private long third;
+
+    @BeforeEach
+    void setUp() {
+        first = userStorage.add(user("first")).getId();
+        second = userStorage.add(user("second")).getId();
+        third = userStorage.add(user("third")).getId();
+    }
+
+    @Test
+    void testAddFriend_fromEitherSide_ShouldKeepOneRowPerPair() {
+        assertTrue(storage.addFriend(second, first));
+        assertFalse(storage.addFriend(first, second));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM friendships", Integer.class));
+        assertArrayEquals(new long[]{second}, storage.findFriendIds(first));
+    }
+
+    @Test
+    void testRestart_ShouldLoadFriendshipsFromTable() {
+        storage.addFriend(first, second);
+        storage.addFriend(third, first);
+        storage.addFriend(second, third);
+        assertTrue(storage.removeFriend(third, second));
+        assertFalse(storage.removeFriend(second, third));
+
+        JdbcFriendStorage restarted = new JdbcFriendStorage(jdbcTemplate);
+
+        assertArrayEquals(new long[]{second, third}, restarted.findFriendIds(first));
+        assertArrayEquals(new long[]{first}, restarted.findCommonFriendIds(second, third));
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileLikeStorageTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testRestart_ShouldRestoreLikesAndRanking() throws IOException {
+        FileLikeStorage storage = new FileLikeStorage(dataDir, 2);
+        storage.addLike(1, 10);
+        storage.addLike(2, 10);
+        storage.addLike(2, 11);
+        storage.addLike(3, 10);
+        storage.removeLike(3, 10);
+        storage.close();
+
+        FileLikeStorage restarted = new FileLikeStorage(dataDir, 2);
+
+        assertEquals(List.of(2L, 1L), restarted.findPopular(10));
+        assertEquals(2, restarted.countLikes(2));
+        assertEquals(0, restarted.countLikes(3));
+        restarted.close();
+    }
+
+    @Test
+    void testCrash_ShouldReplayRemovedLikesFromLog() throws IOException {
+        FileLikeStorage storage = new FileLikeStorage(dataDir, 1_000);
+        storage.addLike(1, 10);
+        storage.addLike(1, 11);
+        storage.removeLike(1, 10);
+
+        FileLikeStorage restarted = new FileLikeStorage(dataDir, 1_000);
+
+        assertEquals(1, restarted.countLikes(1));
+        restarted.close();
+    }
+
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryLikeStorageTest {
+
+    private InMemoryLikeStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryLikeStorage();
+    }
+
+    @Test
+    void testAddLike_whenUserAlreadyLiked_ShouldNotCountTwice() {
+        assertTrue(storage.addLike(1, 10));
+        assertFalse(storage.addLike(1, 10));
+
+        assertEquals(1, storage.countLikes(1));
+    }
+
+    @Test
+    void testRemoveLike_whenLikeIsMissing_ShouldReturnFalse() {
+        assertFalse(storage.removeLike(1, 10));
+        storage.addLike(1, 10);
+
+        assertTrue(storage.removeLike(1, 10));
+        assertEquals(0, storage.countLikes(1));
+        assertEquals(List.of(), storage.findPopular(10));
+    }
+
+    @Test
+    void testFindPopular_ShouldOrderByLikesDescendingThenById() {
+        storage.addLike(3, 1);
+        storage.addLike(2, 1);
+        storage.addLike(2, 2);
+        storage.addLike(1, 1);
+
+        assertEquals(List.of(2L, 1L, 3L), storage.findPopular(10));
+        assertEquals(List.of(2L), storage.findPopular(1));
+    }
+
+    @Test
+    void testAddLike_whenCalledConcurrently_ShouldKeepRankingConsistent() throws Exception {
+        int threads = 8;
+        int usersPerThread = 500;
+        int films = 20;
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int u = 0; u < usersPerThread; u++) {
+                        long userId = (long) thread * usersPerThread + u;
+                        long filmId = userId % films;
+                        storage.addLike(filmId, userId);
+                        if (u % 3 == 0) {
+                            storage.removeLike(filmId, userId);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        List<Long> popular = storage.findPopular(films);
+        assertEquals(films, popular.size());
+        for (int i = 1; i < popular.size(); i++) {
+            long previous = storage.countLikes(popular.get(i - 1));
+            long current = storage.countLikes(popular.get(i));
+            assertTrue(previous > current || previous == current && popular.get(i - 1) < popular.get(i));
+        }
+    }
+
+}
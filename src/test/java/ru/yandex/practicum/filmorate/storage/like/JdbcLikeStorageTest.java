@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.JdbcFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.JdbcUserStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+@ActiveProfiles("jdbc")
+@Import({JdbcLikeStorage.class, JdbcFilmStorage.class, JdbcUserStorage.class})
+public class JdbcLikeStorageTest {
+
+    @Autowired
+    private JdbcLikeStorage storage;
+
+    @Autowired
+    private JdbcFilmStorage filmStorage;
+
+    @Autowired
+    private JdbcUserStorage userStorage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long first;
+    private long second;
+    private long user;
+    private long otherUser;
+
+    @BeforeEach
+    void setUp() {
+        first = filmStorage.add(film("first")).getId();
+        second = filmStorage.add(film("second")).getId();
+        user = userStorage.add(user("user")).getId();
+        otherUser = userStorage.add(user("other")).getId();
+    }
+
+    @Test
+    void testAddLike_whenUserAlreadyLiked_ShouldKeepOneRow() {
+        assertTrue(storage.addLike(first, user));
+        assertFalse(storage.addLike(first, user));
+
+        assertEquals(1, storage.countLikes(first));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM likes", Integer.class));
+    }
+
+    @Test
+    void testRestart_ShouldLoadLikesAndRankingFromTable() {
+        storage.addLike(first, user);
+        storage.addLike(second, user);
+        storage.addLike(second, otherUser);
+        storage.removeLike(first, user);
+        assertFalse(storage.removeLike(first, user));
+
+        JdbcLikeStorage restarted = new JdbcLikeStorage(jdbcTemplate);
+
+        assertEquals(List.of(second), restarted.findPopular(10));
+        assertEquals(2, restarted.countLikes(second));
+        assertEquals(0, restarted.countLikes(first));
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(100);
+        return film;
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+
+}
@@ -0,0 +1,179 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DurableLogTest {
+
+    static final RecordCodec<String> CODEC = new RecordCodec<>() {
+        @Override
+        public byte[] encode(String record) {
+            return record.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecover_ShouldReplayAppendedRecordsInOrder() throws IOException {
+        try (DurableLog<String> log = open(new ArrayList<>())) {
+            log.sync(log.append(List.of("a", "b")));
+            log.sync(log.append(List.of("c")));
+        }
+
+        List<String> recovered = new ArrayList<>();
+        open(recovered).close();
+
+        assertEquals(List.of("a", "b", "c"), recovered);
+    }
+
+    @Test
+    void testRecover_ShouldReadSnapshotThenTailAndDropCoveredSegments() throws IOException {
+        try (DurableLog<String> log = open(new ArrayList<>())) {
+            log.sync(log.append(List.of("a", "b")));
+            long rolled = log.roll();
+            log.sync(log.append(List.of("c")));
+            log.writeSnapshot(rolled, List.of("a", "b"));
+        }
+
+        List<String> recovered = new ArrayList<>();
+        open(recovered).close();
+
+        assertEquals(List.of("a", "b", "c"), recovered);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of("snapshot-000001.snap", "wal-000002.log"),
+                    files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    void testRecover_ShouldTruncateTornTail() throws IOException {
+        try (DurableLog<String> log = open(new ArrayList<>())) {
+            log.sync(log.append(List.of("a", "b")));
+        }
+        Path segment = dir.resolve("wal-000001.log");
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        List<String> recovered = new ArrayList<>();
+        try (DurableLog<String> log = open(recovered)) {
+            log.sync(log.append(List.of("c")));
+        }
+        recovered.clear();
+        open(recovered).close();
+
+        assertEquals(List.of("a", "b", "c"), recovered);
+    }
+
+    @Test
+    void testRecover_whenEarlierSegmentIsCorrupted_ShouldFailAndKeepFiles() throws IOException {
+        try (DurableLog<String> log = open(new ArrayList<>())) {
+            log.sync(log.append(List.of("a", "b")));
+            log.roll();
+            log.sync(log.append(List.of("c")));
+        }
+        Path segment = dir.resolve("wal-000001.log");
+        long size = Files.size(segment);
+        corruptLastByte(segment);
+
+        IOException e = assertThrows(IOException.class, () -> open(new ArrayList<>()));
+
+        assertTrue(e.getMessage().contains("wal-000001.log"));
+        assertEquals(size, Files.size(segment));
+    }
+
+    @Test
+    void testRecover_whenSnapshotIsCorrupted_ShouldFail() throws IOException {
+        try (DurableLog<String> log = open(new ArrayList<>())) {
+            log.sync(log.append(List.of("a")));
+            log.writeSnapshot(log.roll(), List.of("a"));
+        }
+        corruptLastByte(dir.resolve("snapshot-000001.snap"));
+
+        assertThrows(IOException.class, () -> open(new ArrayList<>()));
+    }
+
+    @Test
+    void testAppend_whenWriteFailsMidFrame_ShouldDropTornFrameAndKeepLaterRecords() throws IOException {
+        List<TearingChannel> segments = new ArrayList<>();
+        try (DurableLog<String> log = new DurableLog<>(dir, CODEC, channel -> tearing(channel, segments))) {
+            log.recover(record -> { });
+            log.sync(log.append(List.of("a")));
+            segments.get(0).failNextWrite();
+            assertThrows(IOException.class, () -> log.append(List.of("torn", "batch")));
+            log.sync(log.append(List.of("b")));
+        }
+
+        List<String> recovered = new ArrayList<>();
+        open(recovered).close();
+
+        assertEquals(List.of("a", "b"), recovered);
+    }
+
+    @Test
+    void testAppend_whenCodecFails_ShouldWriteNothingFromBatch() throws IOException {
+        RecordCodec<String> failing = new RecordCodec<>() {
+            @Override
+            public byte[] encode(String record) {
+                if (record.isEmpty()) {
+                    throw new IllegalArgumentException("empty record");
+                }
+                return CODEC.encode(record);
+            }
+
+            @Override
+            public String decode(ByteBuffer buffer) {
+                return CODEC.decode(buffer);
+            }
+        };
+        try (DurableLog<String> log = new DurableLog<>(dir, failing)) {
+            log.recover(record -> { });
+            assertThrows(IllegalArgumentException.class, () -> log.append(List.of("a", "")));
+            log.sync(log.append(List.of("b")));
+        }
+
+        List<String> recovered = new ArrayList<>();
+        open(recovered).close();
+
+        assertEquals(List.of("b"), recovered);
+    }
+
+    static TearingChannel tearing(FileChannel channel, List<TearingChannel> opened) {
+        TearingChannel tearing = new TearingChannel(channel);
+        opened.add(tearing);
+        return tearing;
+    }
+
+    private static void corruptLastByte(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+    }
+
+    private DurableLog<String> open(List<String> recovered) throws IOException {
+        DurableLog<String> log = new DurableLog<>(dir, CODEC);
+        log.recover(recovered::add);
+        return log;
+    }
+
+}
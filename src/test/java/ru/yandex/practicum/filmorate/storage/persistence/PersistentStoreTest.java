@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersistentStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testWrite_whenJournalFails_ShouldRejectLaterChanges() throws IOException {
+        List<TearingChannel> segments = new ArrayList<>();
+        List<String> state = new ArrayList<>();
+        AtomicInteger mutations = new AtomicInteger();
+        DurableLog<String> journal = new DurableLog<>(dir, DurableLogTest.CODEC,
+                channel -> DurableLogTest.tearing(channel, segments));
+        try (PersistentStore<String> store = new PersistentStore<>(journal, dir, 1_000, () -> state)) {
+            store.recover(state::add);
+            store.write(() -> add(state, mutations, "a"), List::of);
+            segments.get(0).failNextWrite();
+
+            assertThrows(UncheckedIOException.class, () -> store.write(() -> add(state, mutations, "b"), List::of));
+            assertThrows(UncheckedIOException.class, () -> store.write(() -> add(state, mutations, "c"), List::of));
+            assertEquals(2, mutations.get());
+        }
+
+        List<String> recovered = new ArrayList<>();
+        try (DurableLog<String> reopened = new DurableLog<>(dir, DurableLogTest.CODEC)) {
+            reopened.recover(recovered::add);
+        }
+        assertEquals(List.of("a"), recovered);
+    }
+
+    private static String add(List<String> state, AtomicInteger mutations, String record) {
+        mutations.incrementAndGet();
+        state.add(record);
+        return record;
+    }
+
+}
@@ -0,0 +1,203 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryUserStorageTest {
+
+    private InMemoryUserStorage storage;
+    private final AtomicInteger usersCreated = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryUserStorage();
+    }
+
+    @Test
+    void testAdd_whenIdIsEmpty_ShouldGenerateSequentialIds() {
+        assertEquals(1L, storage.add(user(null)).getId());
+        assertEquals(2L, storage.add(user(null)).getId());
+    }
+
+    @Test
+    void testAdd_whenIdIsTaken_ShouldGenerateNewId() {
+        storage.add(user(5L));
+
+        User duplicate = storage.add(user(5L));
+
+        assertEquals(6L, duplicate.getId());
+        assertEquals(2, storage.findAll().size());
+    }
+
+    @Test
+    void testAdd_whenIdIsBelowIssuedIds_ShouldGenerateNewId() {
+        storage.add(user(5L));
+
+        User user = storage.add(user(3L));
+
+        assertEquals(6L, user.getId());
+    }
+
+    @Test
+    void testUpdate_whenUserIsMissing_ShouldThrow() {
+        assertThrows(NoUserFoundException.class, () -> storage.update(user(42L)));
+    }
+
+    @Test
+    void testAdd_whenCalledConcurrently_ShouldNotLoseUsersOrDuplicateIds() throws Exception {
+        int threads = 8;
+        int usersPerThread = 1_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < usersPerThread; i++) {
+                        ids.add(storage.add(user(null)).getId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(threads * usersPerThread, ids.size());
+        assertEquals(threads * usersPerThread, storage.findAll().size());
+        assertTrue(ids.stream().allMatch(id -> storage.findById(id).isPresent()));
+    }
+
+    @Test
+    void testAdd_whenEmailOrLoginIsTaken_ShouldThrowAndKeepOtherKeyFree() {
+        storage.add(user(null, "first"));
+
+        User sameEmail = user(null, "second");
+        sameEmail.setEmail("First@Example.com");
+        assertThrows(UserAlreadyExistsException.class, () -> storage.add(sameEmail));
+        assertThrows(UserAlreadyExistsException.class, () -> storage.add(user(null, "first")));
+
+        // логин second не должен остаться занятым после отказа по email
+        assertEquals(2L, storage.add(user(null, "second")).getId());
+        assertEquals(2, storage.findAll().size());
+    }
+
+    @Test
+    void testUpdate_whenLoginChanged_ShouldReleaseOldLogin() {
+        User user = storage.add(user(null, "old"));
+
+        User renamed = user(user.getId(), "new");
+        storage.update(renamed);
+
+        assertTrue(storage.findByLogin("old").isEmpty());
+        assertEquals(renamed, storage.findByLogin("new").orElseThrow());
+        assertEquals(2L, storage.add(user(null, "old")).getId());
+    }
+
+    @Test
+    void testUpdate_whenLoginIsTakenByOtherUser_ShouldThrowAndKeepCurrentVersion() {
+        storage.add(user(null, "first"));
+        User second = storage.add(user(null, "second"));
+
+        User update = user(second.getId(), "first");
+        update.setEmail("second@example.com");
+        assertThrows(UserAlreadyExistsException.class, () -> storage.update(update));
+
+        assertEquals(second, storage.findByLogin("second").orElseThrow());
+        assertEquals(1, storage.findById(second.getId()).orElseThrow().getVersion());
+        assertEquals(1L, storage.findByLogin("first").orElseThrow().getId());
+    }
+
+    @Test
+    void testUpdate_whenVersionIsStale_ShouldThrowAndKeepKeys() {
+        User user = storage.add(user(null, "first"));
+        storage.update(user(user.getId(), "second"), 1);
+
+        assertThrows(VersionConflictException.class, () -> storage.update(user(user.getId(), "third"), 1));
+        assertThrows(NoUserFoundException.class, () -> storage.update(user(42L), 1));
+
+        assertEquals(2, storage.findByLogin("second").orElseThrow().getVersion());
+        assertTrue(storage.findByLogin("third").isEmpty());
+        assertEquals(2L, storage.add(user(null, "third")).getId());
+    }
+
+    @Test
+    void testAddAll_ShouldSkipUsersWithTakenKeys() {
+        storage.add(user(null, "taken"));
+
+        List<User> added = storage.addAll(List.of(user(null, "a"), user(null, "taken"), user(null, "a"), user(null, "b")));
+
+        assertEquals(List.of("a", "b"), added.stream().map(User::getLogin).toList());
+        assertEquals(3, storage.findAll().size());
+    }
+
+    @Test
+    void testReplaceAll_ShouldRejectUsersWithTakenKeys() {
+        User first = storage.add(user(null, "first"));
+        User second = storage.add(user(null, "second"));
+        User conflicting = user(second.getId(), "first");
+        User renamed = user(first.getId(), "renamed");
+
+        List<User> rejected = storage.replaceAll(List.of(conflicting, renamed));
+
+        assertEquals(List.of(conflicting), rejected);
+        assertEquals("renamed", storage.findById(first.getId()).orElseThrow().getLogin());
+        assertEquals("second", storage.findById(second.getId()).orElseThrow().getLogin());
+    }
+
+    @Test
+    void testAdd_whenSameLoginAddedConcurrently_ShouldAcceptExactlyOne() throws Exception {
+        int threads = 8;
+        int logins = 1_000;
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < logins; i++) {
+                        try {
+                            storage.add(user(null, "user" + i));
+                        } catch (UserAlreadyExistsException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(logins, storage.findAll().size());
+        assertEquals((threads - 1) * logins, conflicts.get());
+    }
+
+    private User user(Long id) {
+        return user(id, "login" + usersCreated.incrementAndGet());
+    }
+
+    private static User user(Long id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        return user;
+    }
+
+}
@@ -0,0 +1,233 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exceptions.NoUserFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserAlreadyExistsException;
+import ru.yandex.practicum.filmorate.exceptions.VersionConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@JdbcTest
+@ActiveProfiles("jdbc")
+@Import(JdbcUserStorage.class)
+public class JdbcUserStorageTest {
+
+    @Autowired
+    private JdbcUserStorage storage;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAdd_whenIdIsBelowExistingIds_ShouldGenerateNewId() {
+        User explicit = user("explicit");
+        explicit.setId(100L);
+        storage.add(explicit);
+
+        User lower = user("lower");
+        lower.setId(50L);
+        storage.add(lower);
+
+        assertEquals(100L, explicit.getId());
+        assertEquals("lower", storage.findById(lower.getId()).orElseThrow().getLogin());
+        assertEquals(2, storage.findAll().size());
+    }
+
+    @Test
+    void testReplaceAll_ShouldReturnMissingUsers() {
+        List<User> added = storage.addAll(List.of(user("a"), user("b")));
+        added.get(0).setName("renamed");
+        User missing = user("missing");
+        missing.setId(999_999L);
+
+        List<User> notFound = storage.replaceAll(List.of(added.get(0), missing));
+
+        assertEquals(1, notFound.size());
+        assertSame(missing, notFound.get(0));
+        assertEquals("renamed", storage.findById(added.get(0).getId()).orElseThrow().getName());
+        assertEquals(2, added.get(0).getVersion());
+        assertEquals(2, storage.findById(added.get(0).getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testFindPage_ShouldUseKeysetOrder() {
+        List<User> added = storage.addAll(List.of(user("a"), user("b"), user("c")));
+
+        List<User> page = storage.findPage(added.get(0).getId(), 1);
+
+        assertEquals(List.of("b"), page.stream().map(User::getLogin).toList());
+    }
+
+    @Test
+    void testUpdate_whenUserIsMissing_ShouldThrow() {
+        User missing = user("missing");
+        missing.setId(999_999L);
+
+        assertThrows(NoUserFoundException.class, () -> storage.update(missing));
+    }
+
+    @Test
+    void testUpdate_withExpectedVersion_ShouldRejectStaleVersion() {
+        User user = storage.add(user("first"));
+        User edited = user("edited");
+        edited.setId(user.getId());
+        storage.update(edited, 1);
+        assertEquals(2, edited.getVersion());
+
+        User stale = user("stale");
+        stale.setId(user.getId());
+        assertThrows(VersionConflictException.class, () -> storage.update(stale, 1));
+        assertEquals("edited", storage.findById(user.getId()).orElseThrow().getLogin());
+        User missing = user("missing");
+        missing.setId(999_999L);
+        assertThrows(NoUserFoundException.class, () -> storage.update(missing, 1));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testUpdate_whenUpdatedConcurrently_ShouldReturnDistinctVersions() throws Exception {
+        // потоки пишут через свои соединения, поэтому тест идёт вне общей транзакции и чистит за собой
+        User user = storage.add(user("contended"));
+        int threads = 8;
+        int updatesPerThread = 25;
+        Set<Long> versions = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        User edited = user("contended");
+                        edited.setId(user.getId());
+                        versions.add(storage.update(edited).getVersion());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(threads * updatesPerThread, versions.size());
+            assertEquals(1 + threads * updatesPerThread, storage.findById(user.getId()).orElseThrow().getVersion());
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        }
+    }
+
+    @Test
+    void testAdd_whenEmailIsTakenInOtherCase_ShouldThrow() {
+        storage.add(user("first"));
+        User duplicate = user("second");
+        duplicate.setEmail("FIRST@example.com");
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class, () -> storage.add(duplicate));
+
+        assertEquals("User with email first@example.com already exists", e.getMessage());
+        assertEquals(1, storage.findAll().size());
+    }
+
+    @Test
+    void testAddAll_ShouldSkipUsersWithTakenLogin() {
+        storage.add(user("taken"));
+        User taken = user("taken");
+        taken.setEmail("other@example.com");
+
+        List<User> added = storage.addAll(List.of(user("a"), taken, user("b")));
+
+        assertEquals(List.of("a", "b"), added.stream().map(User::getLogin).toList());
+        assertEquals(3, storage.findAll().size());
+    }
+
+    @Test
+    void testAddAll_whenBatchFailsWithoutUpdateCounts_ShouldNotReportInsertedUsersAsConflicts() {
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new DuplicateKeyException("batch failed without per-row results");
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        List<User> added = storage.addAll(new ArrayList<>(List.of(user("first"), user("second"))));
+
+        assertEquals(2, added.size());
+        assertEquals(2, storage.findAll().size());
+    }
+
+    @Test
+    void testReplaceAll_ShouldRejectUsersWithTakenLogin() {
+        List<User> added = storage.addAll(List.of(user("a"), user("b")));
+        User conflicting = user("a");
+        conflicting.setId(added.get(1).getId());
+        conflicting.setEmail("b@example.com");
+        User renamed = user("renamed");
+        renamed.setId(added.get(0).getId());
+
+        List<User> rejected = storage.replaceAll(List.of(conflicting, renamed));
+
+        assertEquals(1, rejected.size());
+        assertSame(conflicting, rejected.get(0));
+        assertEquals("renamed", storage.findById(added.get(0).getId()).orElseThrow().getLogin());
+        assertEquals("b", storage.findById(added.get(1).getId()).orElseThrow().getLogin());
+    }
+
+    @Test
+    void testReplaceAll_whenBatchFailsWithoutUpdateCounts_ShouldNotRejectUpdatedUsers() {
+        List<User> added = storage.addAll(new ArrayList<>(List.of(user("a"), user("b"))));
+        added.get(0).setName("renamed");
+        added.get(1).setName("renamed too");
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new DuplicateKeyException("batch failed without per-row results");
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        List<User> rejected = storage.replaceAll(added);
+
+        assertEquals(List.of(), rejected);
+        assertEquals("renamed", storage.findById(added.get(0).getId()).orElseThrow().getName());
+        assertEquals(2, storage.findById(added.get(1).getId()).orElseThrow().getVersion());
+        assertEquals(2, added.get(1).getVersion());
+    }
+
+    @Test
+    void testUpdate_whenLoginIsTaken_ShouldThrow() {
+        List<User> added = storage.addAll(List.of(user("a"), user("b")));
+        User update = user("a");
+        update.setId(added.get(1).getId());
+        update.setEmail("b@example.com");
+
+        assertThrows(UserAlreadyExistsException.class, () -> storage.update(update));
+        assertEquals(added.get(1).getId(), storage.findByLogin("b").orElseThrow().getId());
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.now());
+        return user;
+    }
+
+}